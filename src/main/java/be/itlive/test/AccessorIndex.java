@@ -0,0 +1,222 @@
+package be.itlive.test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import be.itlive.common.utils.ReflectionUtils;
+
+/**
+ * Getters and setters of the fields of a class, paired once and cached, used by {@link AccessorsUtil}.<br/>
+ * For a field <code>name</code> the setter is <code>setName</code> with one parameter and the getter is
+ * <code>getName</code> without parameter (<code>isName</code> first for a boolean field). The names are compared ignoring
+ * the case and the methods inherited from the super classes are taken into account, the overriding ones first.
+ */
+final class AccessorIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AccessorIndex.class);
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final ClassValue<AccessorIndex> INDEXES = new ClassValue<AccessorIndex>() {
+		@Override
+		protected AccessorIndex computeValue(final Class<?> type) {
+			return create(type);
+		}
+	};
+
+	private final List<Accessor> accessors;
+
+	/**
+	 * @param accessors the accessors of the fields.
+	 */
+	private AccessorIndex(final List<Accessor> accessors) {
+		this.accessors = Collections.unmodifiableList(accessors);
+	}
+
+	/**
+	 * @param type a class.
+	 * @return the cached accessors of the class.
+	 */
+	static AccessorIndex of(final Class<?> type) {
+		return INDEXES.get(type);
+	}
+
+	/**
+	 * @param type a class.
+	 * @return its accessors.
+	 */
+	private static AccessorIndex create(final Class<?> type) {
+		Map<String, Method> getters = new HashMap<>();
+		Map<String, Method> setters = new HashMap<>();
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (Method method : current.getDeclaredMethods()) {
+				if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.isSynthetic()) {
+					continue;
+				}
+				String key = method.getName().toLowerCase(Locale.ROOT);
+				int count = method.getParameterTypes().length;
+				if (count == 0 && !getters.containsKey(key)) {
+					getters.put(key, method);
+				} else if (count == 1 && !setters.containsKey(key)) {
+					setters.put(key, method);
+				}
+			}
+		}
+		List<Accessor> accessors = new ArrayList<>();
+		for (Field field : ReflectionUtils.collectFields(type)) {
+			if ("serialVersionUID".equals(field.getName())) {
+				continue;
+			}
+			String name = StringUtils.capitalize(field.getName()).toLowerCase(Locale.ROOT);
+			Method getter = getters.get("get" + name);
+			if (field.getType().equals(boolean.class) && getters.containsKey("is" + name)) {
+				getter = getters.get("is" + name);
+			}
+			Method setter = setters.get("set" + name);
+			if (getter != null || setter != null) {
+				accessors.add(new Accessor(field, getter, handle(getter, GETTER_TYPE), setter, handle(setter, SETTER_TYPE)));
+			}
+		}
+		return new AccessorIndex(accessors);
+	}
+
+	/**
+	 * @param method a getter or a setter, or null.
+	 * @param type   generic type of the handle.
+	 * @return the handle of the method, or null.
+	 */
+	private static MethodHandle handle(final Method method, final MethodType type) {
+		if (method == null) {
+			return null;
+		}
+		try {
+			method.setAccessible(true);
+			return MethodHandles.lookup().unreflect(method).asType(type);
+		} catch (final IllegalAccessException | RuntimeException e) {
+			LOGGER.debug("Accessor {} can't be used : {}", method, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @return the accessors of the fields having a getter or a setter.
+	 */
+	List<Accessor> getAccessors() {
+		return accessors;
+	}
+
+	/**
+	 * Getter and setter of a field.
+	 */
+	static final class Accessor {
+
+		private final Field field;
+
+		private final Method getter;
+
+		private final MethodHandle getterHandle;
+
+		private final Method setter;
+
+		private final MethodHandle setterHandle;
+
+		/**
+		 * @param field        the field.
+		 * @param getter       its getter or null.
+		 * @param getterHandle the getter adapted to (Object)Object, or null.
+		 * @param setter       its setter or null.
+		 * @param setterHandle the setter adapted to (Object,Object)void, or null.
+		 */
+		private Accessor(final Field field, final Method getter, final MethodHandle getterHandle, final Method setter,
+				final MethodHandle setterHandle) {
+			this.field = field;
+			this.getter = getter;
+			this.getterHandle = getterHandle;
+			this.setter = setter;
+			this.setterHandle = setterHandle;
+		}
+
+		/**
+		 * @return the field.
+		 */
+		Field getField() {
+			return field;
+		}
+
+		/**
+		 * @return name of the field.
+		 */
+		String getName() {
+			return field.getName();
+		}
+
+		/**
+		 * @return the getter or null.
+		 */
+		Method getGetter() {
+			return getter;
+		}
+
+		/**
+		 * @return the setter or null.
+		 */
+		Method getSetter() {
+			return setter;
+		}
+
+		/**
+		 * @return type of the parameter of the setter.
+		 */
+		Class<?> getSetterType() {
+			return setter.getParameterTypes()[0];
+		}
+
+		/**
+		 * @return true if the field has a usable getter.
+		 */
+		boolean hasGetter() {
+			return getterHandle != null;
+		}
+
+		/**
+		 * @return true if the field has a usable setter.
+		 */
+		boolean hasSetter() {
+			return setterHandle != null;
+		}
+
+		/**
+		 * @param target the object.
+		 * @return the value returned by the getter.
+		 * @throws Throwable thrown by the getter.
+		 */
+		Object get(final Object target) throws Throwable {
+			return getterHandle.invokeExact(target);
+		}
+
+		/**
+		 * @param target the object.
+		 * @param value  value given to the setter.
+		 * @throws Throwable thrown by the setter.
+		 */
+		void set(final Object target, final Object value) throws Throwable {
+			setterHandle.invokeExact(target, value);
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package be.itlive.test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+import be.itlive.test.AccessorIndex.Accessor;
+import be.itlive.test.AccessorsProfile.AccessorCost;
+
+/**
+ * Measure of the getters and setters of an object against a direct access to their field, both through
+ * {@link MethodHandle}s, after a warm-up (see {@link AccessorsUtil#profileAccessors(Class)}).<br/>
+ * An accessor is expensive when it is more than {@value #MAX_RATIO} times slower than the field access (and slower by
+ * more than {@value #MIN_NANOS} ns, to ignore the noise of the timer) or when it allocates more than
+ * {@value #MAX_BYTES} bytes per call beyond the field access (lazy loading, defensive copies, logging, ...).
+ */
+final class AccessorProfiler {
+
+	/**
+	 * Calls before the measure, so that the accessors are compiled.
+	 */
+	static final int WARMUP = 20000;
+
+	/**
+	 * Measured calls.
+	 */
+	static final int ITERATIONS = 20000;
+
+	private static final double MAX_RATIO = 10;
+
+	private static final double MIN_NANOS = 50;
+
+	private static final double MAX_BYTES = 32;
+
+	private static volatile Object sink;
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private AccessorProfiler() {
+		super();
+	}
+
+	/**
+	 * @param target    an object whose fields are filled.
+	 * @param accessors its accessors.
+	 * @return the profile of the accessors.
+	 * @throws Throwable thrown by an accessor.
+	 */
+	static AccessorsProfile profile(final Object target, final List<Accessor> accessors) throws Throwable {
+		List<AccessorCost> costs = new ArrayList<>();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		for (Accessor accessor : accessors) {
+			accessor.getField().setAccessible(true);
+			if (accessor.hasGetter()) {
+				MethodHandle field = lookup.unreflectGetter(accessor.getField()).asType(MethodType.methodType(Object.class, Object.class));
+				costs.add(cost(accessor.getGetter().getName(), measureGet(field, target), measureGet(accessor, target)));
+			}
+			if (accessor.hasSetter() && accessor.getSetterType().isAssignableFrom(accessor.getField().getType())) {
+				MethodHandle field = lookup.unreflectSetter(accessor.getField())
+						.asType(MethodType.methodType(void.class, Object.class, Object.class));
+				Object value = lookup.unreflectGetter(accessor.getField()).invoke(target);
+				costs.add(cost(accessor.getSetter().getName(), measureSet(field, target, value), measureSet(accessor, target, value)));
+			}
+		}
+		return new AccessorsProfile(target.getClass(), costs);
+	}
+
+	/**
+	 * @param method name of the accessor.
+	 * @param field  nanoseconds and bytes of the direct access.
+	 * @param call   nanoseconds and bytes of the accessor.
+	 * @return the cost of the accessor.
+	 */
+	private static AccessorCost cost(final String method, final double[] field, final double[] call) {
+		boolean slow = call[0] > field[0] * MAX_RATIO && call[0] - field[0] > MIN_NANOS;
+		boolean allocating = call[1] >= 0 && field[1] >= 0 && call[1] - field[1] > MAX_BYTES;
+		return new AccessorCost(method, call[0], field[0], call[1], field[1], slow || allocating);
+	}
+
+	/**
+	 * @param getter the direct read of the field, (Object)Object.
+	 * @param target the object.
+	 * @return average nanoseconds and bytes of a read.
+	 * @throws Throwable thrown by the read.
+	 */
+	private static double[] measureGet(final MethodHandle getter, final Object target) throws Throwable {
+		for (int i = 0; i < WARMUP; i++) {
+			sink = getter.invokeExact(target);
+		}
+		long bytes = Allocations.currentThread();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink = getter.invokeExact(target);
+		}
+		return average(System.nanoTime() - start, Allocations.since(bytes));
+	}
+
+	/**
+	 * @param accessor the getter.
+	 * @param target   the object.
+	 * @return average nanoseconds and bytes of a call.
+	 * @throws Throwable thrown by the getter.
+	 */
+	private static double[] measureGet(final Accessor accessor, final Object target) throws Throwable {
+		for (int i = 0; i < WARMUP; i++) {
+			sink = accessor.get(target);
+		}
+		long bytes = Allocations.currentThread();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink = accessor.get(target);
+		}
+		return average(System.nanoTime() - start, Allocations.since(bytes));
+	}
+
+	/**
+	 * @param setter the direct write of the field, (Object,Object)void.
+	 * @param target the object.
+	 * @param value  the value written.
+	 * @return average nanoseconds and bytes of a write.
+	 * @throws Throwable thrown by the write.
+	 */
+	private static double[] measureSet(final MethodHandle setter, final Object target, final Object value) throws Throwable {
+		for (int i = 0; i < WARMUP; i++) {
+			setter.invokeExact(target, value);
+		}
+		long bytes = Allocations.currentThread();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			setter.invokeExact(target, value);
+		}
+		return average(System.nanoTime() - start, Allocations.since(bytes));
+	}
+
+	/**
+	 * @param accessor the setter.
+	 * @param target   the object.
+	 * @param value    the value given to the setter.
+	 * @return average nanoseconds and bytes of a call.
+	 * @throws Throwable thrown by the setter.
+	 */
+	private static double[] measureSet(final Accessor accessor, final Object target, final Object value) throws Throwable {
+		for (int i = 0; i < WARMUP; i++) {
+			accessor.set(target, value);
+		}
+		long bytes = Allocations.currentThread();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			accessor.set(target, value);
+		}
+		return average(System.nanoTime() - start, Allocations.since(bytes));
+	}
+
+	/**
+	 * @param nanos total time.
+	 * @param bytes total bytes allocated, -1 if unknown.
+	 * @return average nanoseconds and bytes per call.
+	 */
+	private static double[] average(final long nanos, final long bytes) {
+		return new double[] { (double) nanos / ITERATIONS, bytes < 0 ? -1 : (double) bytes / ITERATIONS };
+	}
+}
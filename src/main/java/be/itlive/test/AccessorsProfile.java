@@ -0,0 +1,161 @@
+package be.itlive.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import be.itlive.common.exceptions.ServiceException;
+
+/**
+ * Cost of the getters and setters of a class compared with a direct access to their field (see
+ * {@link AccessorsUtil#profileAccessors(Class)}).<br/>
+ * Example of use :
+ *
+ * <pre>
+ * AccessorsUtil.profileAccessors(Order.class).check();
+ * </pre>
+ */
+public final class AccessorsProfile {
+
+	private final Class<?> type;
+
+	private final List<AccessorCost> costs;
+
+	/**
+	 * @param type  the profiled class.
+	 * @param costs cost of each accessor.
+	 */
+	AccessorsProfile(final Class<?> type, final List<AccessorCost> costs) {
+		this.type = type;
+		this.costs = Collections.unmodifiableList(costs);
+	}
+
+	/**
+	 * @return the profiled class.
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return cost of each getter and setter.
+	 */
+	public List<AccessorCost> getCosts() {
+		return costs;
+	}
+
+	/**
+	 * @return the accessors far more expensive than a direct access to their field.
+	 */
+	public List<AccessorCost> getExpensive() {
+		List<AccessorCost> expensive = new ArrayList<>();
+		for (AccessorCost cost : costs) {
+			if (cost.isExpensive()) {
+				expensive.add(cost);
+			}
+		}
+		return expensive;
+	}
+
+	/**
+	 * @throws ServiceException listing the expensive accessors, if any.
+	 */
+	public void check() throws ServiceException {
+		List<AccessorCost> expensive = getExpensive();
+		if (!expensive.isEmpty()) {
+			StringBuilder message = new StringBuilder(type.getName()).append(" has expensive accessors :");
+			for (AccessorCost cost : expensive) {
+				message.append("\n - ").append(cost);
+			}
+			throw new ServiceException(message.toString());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return type.getName() + " : " + costs.size() + " accessors profiled, " + getExpensive().size() + " expensive";
+	}
+
+	/**
+	 * Cost of one accessor and of the direct access to its field.
+	 */
+	public static final class AccessorCost {
+
+		private final String method;
+
+		private final double nanos;
+
+		private final double fieldNanos;
+
+		private final double bytes;
+
+		private final double fieldBytes;
+
+		private final boolean expensive;
+
+		/**
+		 * @param method     name of the accessor.
+		 * @param nanos      average time of a call.
+		 * @param fieldNanos average time of a direct access to the field.
+		 * @param bytes      average bytes allocated by a call, -1 if unknown.
+		 * @param fieldBytes average bytes allocated by a direct access, -1 if unknown.
+		 * @param expensive  true if the accessor is far more expensive than the direct access.
+		 */
+		AccessorCost(final String method, final double nanos, final double fieldNanos, final double bytes, final double fieldBytes,
+				final boolean expensive) {
+			this.method = method;
+			this.nanos = nanos;
+			this.fieldNanos = fieldNanos;
+			this.bytes = bytes;
+			this.fieldBytes = fieldBytes;
+			this.expensive = expensive;
+		}
+
+		/**
+		 * @return name of the accessor.
+		 */
+		public String getMethod() {
+			return method;
+		}
+
+		/**
+		 * @return average time of a call, in nanoseconds.
+		 */
+		public double getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * @return average time of a direct access to the field, in nanoseconds.
+		 */
+		public double getFieldNanos() {
+			return fieldNanos;
+		}
+
+		/**
+		 * @return average bytes allocated by a call, -1 if the JVM can't measure it.
+		 */
+		public double getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * @return average bytes allocated by a direct access to the field, -1 if the JVM can't measure it.
+		 */
+		public double getFieldBytes() {
+			return fieldBytes;
+		}
+
+		/**
+		 * @return true if the accessor is far more expensive than a direct access to its field.
+		 */
+		public boolean isExpensive() {
+			return expensive;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s : %.1f ns (field %.1f ns), %.1f bytes (field %.1f bytes)", method, nanos, fieldNanos, bytes, fieldBytes);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package be.itlive.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import be.itlive.common.exceptions.ServiceException;
+
+/**
+ * Result of the verification of the accessors of several classes (see {@link AccessorsUtil#testAccessors(java.util.Collection)}),
+ * with the failure and the time spent for each class.<br/>
+ * Example of use :
+ *
+ * <pre>
+ * AccessorsUtil.testAccessorsInPackage("be.itlive.model").check();
+ * </pre>
+ */
+public final class AccessorsReport {
+
+	private final List<ClassResult> results;
+
+	private final List<Class<?>> skipped;
+
+	/**
+	 * @param results result of each verified class.
+	 * @param skipped classes skipped because unchanged since their last verification.
+	 */
+	AccessorsReport(final List<ClassResult> results, final List<Class<?>> skipped) {
+		List<ClassResult> sorted = new ArrayList<>(results);
+		Collections.sort(sorted, new Comparator<ClassResult>() {
+			@Override
+			public int compare(final ClassResult first, final ClassResult second) {
+				return first.getType().getName().compareTo(second.getType().getName());
+			}
+		});
+		this.results = Collections.unmodifiableList(sorted);
+		this.skipped = Collections.unmodifiableList(skipped);
+	}
+
+	/**
+	 * @return result of each verified class, sorted by class name.
+	 */
+	public List<ClassResult> getResults() {
+		return results;
+	}
+
+	/**
+	 * @return classes skipped because unchanged since their last successful verification (incremental mode).
+	 */
+	public List<Class<?>> getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * @return results of the classes whose accessors are not standard.
+	 */
+	public List<ClassResult> getFailures() {
+		List<ClassResult> failures = new ArrayList<>();
+		for (ClassResult result : results) {
+			if (!result.isSuccessful()) {
+				failures.add(result);
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * @return true if the accessors of all the classes are standard.
+	 */
+	public boolean isSuccessful() {
+		return getFailures().isEmpty();
+	}
+
+	/**
+	 * @return time spent verifying the classes, summed over the threads, in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		long total = 0;
+		for (ClassResult result : results) {
+			total += result.getNanos();
+		}
+		return total;
+	}
+
+	/**
+	 * @throws ServiceException listing the failures, if any.
+	 */
+	public void check() throws ServiceException {
+		List<ClassResult> failures = getFailures();
+		if (!failures.isEmpty()) {
+			StringBuilder message = new StringBuilder();
+			message.append(failures.size()).append(" of ").append(results.size()).append(" classes have non standard accessors :");
+			for (ClassResult failure : failures) {
+				message.append("\n - ").append(failure);
+			}
+			ServiceException exception = new ServiceException(message.toString());
+			for (ClassResult failure : failures) {
+				exception.addSuppressed(failure.getFailure());
+			}
+			throw exception;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return results.size() + " classes verified in " + getTotalNanos() / 1000000 + " ms, " + getFailures().size() + " failures, " + skipped.size()
+				+ " skipped";
+	}
+
+	/**
+	 * Result of the verification of one class.
+	 */
+	public static final class ClassResult {
+
+		private final Class<?> type;
+
+		private final long nanos;
+
+		private final Throwable failure;
+
+		/**
+		 * @param type    the verified class.
+		 * @param nanos   time spent.
+		 * @param failure the failure or null.
+		 */
+		ClassResult(final Class<?> type, final long nanos, final Throwable failure) {
+			this.type = type;
+			this.nanos = nanos;
+			this.failure = failure;
+		}
+
+		/**
+		 * @return the verified class.
+		 */
+		public Class<?> getType() {
+			return type;
+		}
+
+		/**
+		 * @return time spent verifying the class, in nanoseconds.
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * @return the failure or null if the accessors are standard.
+		 */
+		public Throwable getFailure() {
+			return failure;
+		}
+
+		/**
+		 * @return true if the accessors are standard.
+		 */
+		public boolean isSuccessful() {
+			return failure == null;
+		}
+
+		@Override
+		public String toString() {
+			return type.getName() + " (" + nanos / 1000 + " us)" + (failure == null ? "" : " : " + failure.getMessage());
+		}
+	}
+}
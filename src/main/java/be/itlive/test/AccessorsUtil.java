@@ -1,21 +1,32 @@
 package be.itlive.test;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.reflect.ClassPath;
+import com.google.common.reflect.ClassPath.ClassInfo;
+import com.google.common.util.concurrent.Futures;
+
 import be.itlive.common.exceptions.ServiceException;
-import be.itlive.common.utils.ReflectionUtils;
+import be.itlive.test.AccessorIndex.Accessor;
+import be.itlive.test.AccessorsReport.ClassResult;
 
 /**
  *
@@ -30,6 +41,11 @@ import be.itlive.common.utils.ReflectionUtils;
  */
 public final class AccessorsUtil {
 
+	/**
+	 * Default number of random instances of {@link #testContracts(Class)}.
+	 */
+	public static final int DEFAULT_CONTRACT_INSTANCES = 1000;
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(AccessorsUtil.class);
 
 	/**
@@ -43,75 +59,90 @@ public final class AccessorsUtil {
 	 * Get all the fields of the object and compare them with the value set.
 	 * 
 	 * @param inObject           The object.
-	 * @param fields             The object's fields.
-	 * @param methods            The object's methods.
+	 * @param accessors          The accessors of the object's fields.
 	 * @param compareValueLogger If true, we log the values compared.
 	 * @param parameters
 	 * @throws ServiceException
 	 */
-	private static void getAllFields(final Object inObject, final List<Field> fields, final Method[] methods,
-			final boolean compareValueLogger, final Map<String, Object> parameters) throws ServiceException {
-		try {
-			for (Field field : fields) {
-				String getterName = StringUtils.join("get", StringUtils.capitalize(field.getName()));
-				if (field.getType().equals(boolean.class)) {
-					getterName = StringUtils.join("is", StringUtils.capitalize(field.getName()));
+	private static void getAllFields(final Object inObject, final List<Accessor> accessors, final boolean compareValueLogger,
+			final Map<String, Object> parameters) throws ServiceException {
+		for (Accessor accessor : accessors) {
+			if (accessor.hasGetter()) {
+				Object expected = parameters.remove(accessor.getName());
+				Object objectFound = invoke(accessor, inObject, null, false);
+				if (compareValueLogger) {
+					LOGGER.debug("METHOD <{}> : VALUE SET: {} - VALUE GET : {}", accessor.getGetter().getName(), expected, objectFound);
 				}
-				for (Method m : methods) {
-					if (getterName.equalsIgnoreCase(m.getName())) {
-						Object expected = parameters.remove(field.getName());
-						Object objectFound = m.invoke(inObject);
-						if (compareValueLogger) {
-							LOGGER.debug("METHOD <{}> : VALUE SET: {} - VALUE GET : {}", m.getName(), expected, objectFound);
-						}
-						if (!Objects.equals(expected, objectFound)) {
-							throw new ServiceException("For method " + m.getName() + " -- expected <" + expected + "> but was <" + objectFound + ">");
-						}
-						break;
-					}
+				if (!Objects.equals(expected, objectFound)) {
+					throw new ServiceException(
+							"For method " + accessor.getGetter().getName() + " -- expected <" + expected + "> but was <" + objectFound + ">");
 				}
 			}
-		} catch (final InvocationTargetException e) {
-			throw new ServiceException(e);
-		} catch (final IllegalAccessException e) {
-			throw new ServiceException(e);
 		}
 	}
 
 	/**
-	 * Set all the fields of the object with random values.
+	 * Set all the fields of the object with random values drawn from {@link RandomSource#current()}.
 	 * 
 	 * @param inObject   The object.
-	 * @param fields     The object's fields.
-	 * @param methods    The object's methods.
+	 * @param accessors  The accessors of the object's fields.
 	 * @param parameters
 	 * @throws ServiceException
 	 */
-	private static void setAllFields(final Object inObject, final List<Field> fields, final Method[] methods,
-			final Map<String, Object> parameters) throws ServiceException {
+	private static void setAllFields(final Object inObject, final List<Accessor> accessors, final Map<String, Object> parameters)
+			throws ServiceException {
+		RandomSource random = RandomSource.current();
+		for (Accessor accessor : accessors) {
+			if (accessor.hasSetter()) {
+				Object parameter = FillerUtil.getRandomValue(accessor.getSetterType(), random);
+				parameters.put(accessor.getName(), parameter);
+				invoke(accessor, inObject, parameter, true);
+			}
+		}
+	}
+
+	/**
+	 * @param accessor the accessors of a field.
+	 * @param inObject the object.
+	 * @param value    the value to set.
+	 * @param set      true to call the setter, false to call the getter.
+	 * @return the value returned by the getter.
+	 * @throws ServiceException if the accessor fails.
+	 */
+	private static Object invoke(final Accessor accessor, final Object inObject, final Object value, final boolean set)
+			throws ServiceException {
 		try {
-			for (Field field : fields) {
-				String setterName = StringUtils.join("set", StringUtils.capitalize(field.getName()));
-				for (Method m : methods) {
-					if (setterName.equalsIgnoreCase(m.getName())) {
-						Class<?>[] classOfParameter = m.getParameterTypes();
-						Object parameter = null;
-						if (ArrayUtils.getLength(classOfParameter) == 1) {
-							parameter = FillerUtil.getRandomValue(classOfParameter[0]);
-							parameters.put(field.getName(), parameter);
-						}
-						m.invoke(inObject, parameter);
-						break;
-					}
-				}
+			if (set) {
+				accessor.set(inObject, value);
+				return null;
 			}
-		} catch (final InvocationTargetException e) {
-			throw new ServiceException(e);
-		} catch (final IllegalAccessException e) {
+			return accessor.get(inObject);
+		} catch (final Error e) {
+			throw e;
+		} catch (final Throwable e) {
 			throw new ServiceException(e);
 		}
 	}
 
+	/**
+	 * @param inObject           the object.
+	 * @param fieldsNameToIgnore names of the fields to skip or null.
+	 * @return the accessors of the fields of the object, without the ignored ones.
+	 */
+	private static List<Accessor> accessors(final Object inObject, final List<String> fieldsNameToIgnore) {
+		List<Accessor> accessors = AccessorIndex.of(inObject.getClass()).getAccessors();
+		if (fieldsNameToIgnore == null || fieldsNameToIgnore.isEmpty()) {
+			return accessors;
+		}
+		List<Accessor> kept = new ArrayList<>(accessors.size());
+		for (Accessor accessor : accessors) {
+			if (!fieldsNameToIgnore.contains(accessor.getName())) {
+				kept.add(accessor);
+			}
+		}
+		return kept;
+	}
+
 	/**
 	 * Set all the fields of a given object with random values (null for non trivial type) and get them. If a value that it
 	 * get is different that the value set, the method throw a {@link ServiceException}.
@@ -169,19 +200,272 @@ public final class AccessorsUtil {
 			throws ServiceException {
 		if (inObject != null) {
 			Map<String, Object> parameters = new HashMap<>();
-			List<Field> fields = new ArrayList<>();
-			for (Field field : ReflectionUtils.collectFields(inObject.getClass())) {
-				if ("serialVersionUID".equals(field.getName())) {
-					continue;
-				}
-				if (fieldsNameToIgnore == null || !fieldsNameToIgnore.contains(field.getName())) {
-					fields.add(field);
+			List<Accessor> accessors = accessors(inObject, fieldsNameToIgnore);
+			setAllFields(inObject, accessors, parameters);
+			getAllFields(inObject, accessors, compareValueLogger, parameters);
+		}
+		return true;
+	}
+
+	/**
+	 * Test the accessors of the concrete classes with a public no-arg constructor found on the classpath (directories and
+	 * jars) in a package and its sub packages (see {@link #testAccessors(Collection)}).
+	 * 
+	 * @param packageName name of the package.
+	 * @return the report of the verification.
+	 * @throws ServiceException If the classpath can't be read.
+	 */
+	public static AccessorsReport testAccessorsInPackage(final String packageName) throws ServiceException {
+		return testAccessorsInPackage(packageName, false);
+	}
+
+	/**
+	 * Test the accessors of the concrete classes with a public no-arg constructor found on the classpath (directories and
+	 * jars) in a package and its sub packages (see {@link #testAccessors(Collection, boolean)}).
+	 * 
+	 * @param packageName name of the package.
+	 * @param incremental If true, the classes unchanged since their last successful verification are skipped.
+	 * @return the report of the verification.
+	 * @throws ServiceException If the classpath can't be read.
+	 */
+	public static AccessorsReport testAccessorsInPackage(final String packageName, final boolean incremental) throws ServiceException {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader == null) {
+			loader = AccessorsUtil.class.getClassLoader();
+		}
+		List<Class<?>> classes = new ArrayList<>();
+		try {
+			for (ClassInfo info : ClassPath.from(loader).getAllClasses()) {
+				if (info.getPackageName().equals(packageName) || info.getPackageName().startsWith(packageName + ".")) {
+					Class<?> type = loadBean(info);
+					if (type != null) {
+						classes.add(type);
+					}
 				}
 			}
-			Method[] methods = inObject.getClass().getDeclaredMethods();
-			setAllFields(inObject, fields, methods, parameters);
-			getAllFields(inObject, fields, methods, compareValueLogger, parameters);
+		} catch (final IOException e) {
+			throw new ServiceException(e);
 		}
+		return testAccessors(classes, incremental);
+	}
+
+	/**
+	 * @param info a class found on the classpath.
+	 * @return the class if it is a concrete class with a public no-arg constructor, else null.
+	 */
+	private static Class<?> loadBean(final ClassInfo info) {
+		try {
+			Class<?> type = info.load();
+			int modifiers = type.getModifiers();
+			if (type.isInterface() || type.isEnum() || type.isAnnotation() || Modifier.isAbstract(modifiers) || !Modifier.isPublic(modifiers)
+					|| type.isMemberClass() && !Modifier.isStatic(modifiers) || type.isLocalClass() || type.isAnonymousClass()) {
+				return null;
+			}
+			return Modifier.isPublic(type.getConstructor().getModifiers()) ? type : null;
+		} catch (final NoSuchMethodException e) {
+			return null;
+		} catch (final LinkageError e) {
+			LOGGER.debug("Class {} skipped : {}", info.getName(), e.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * Test the accessors of several classes concurrently (see {@link #testAccessors(Class)}), on a pool of one thread per
+	 * available processor.
+	 * 
+	 * @param classes Classes to test.
+	 * @return the report of the verification : failure and time spent for each class.
+	 */
+	public static AccessorsReport testAccessors(final Collection<Class<?>> classes) {
+		return testAccessors(classes, false);
+	}
+
+	/**
+	 * Test the accessors of several classes concurrently (see {@link #testAccessors(Class)}), on a pool of one thread per
+	 * available processor.<br/>
+	 * In incremental mode, the hash of the bytecode of each class successfully verified (and of its super classes) is
+	 * recorded in an index under <code>target/</code>, and the classes whose hash hasn't changed since are skipped.
+	 * 
+	 * @param classes     Classes to test.
+	 * @param incremental If true, the classes unchanged since their last successful verification are skipped.
+	 * @return the report of the verification : failure and time spent for each tested class, skipped classes.
+	 */
+	public static AccessorsReport testAccessors(final Collection<Class<?>> classes, final boolean incremental) {
+		Path indexFile = VerifiedAccessors.file();
+		Map<String, String> verified = incremental ? VerifiedAccessors.load(indexFile) : new HashMap<String, String>();
+		Map<Class<?>, String> hashes = new HashMap<>();
+		List<Class<?>> skipped = new ArrayList<>();
+		List<Class<?>> tested = new ArrayList<>(classes.size());
+		for (Class<?> type : classes) {
+			String hash = incremental ? VerifiedAccessors.hash(type) : null;
+			if (hash != null && hash.equals(verified.get(type.getName()))) {
+				skipped.add(type);
+			} else {
+				hashes.put(type, hash);
+				tested.add(type);
+			}
+		}
+		List<ClassResult> results = verifyAll(tested, AccessorsUtil::testAccessors);
+		for (ClassResult result : results) {
+			String hash = hashes.get(result.getType());
+			if (result.isSuccessful() && hash != null) {
+				verified.put(result.getType().getName(), hash);
+			} else {
+				verified.remove(result.getType().getName());
+			}
+		}
+		if (incremental) {
+			VerifiedAccessors.store(verified, indexFile);
+		}
+		return new AccessorsReport(results, skipped);
+	}
+
+	/**
+	 * Check the equals, hashCode and toString contracts of a class over {@value #DEFAULT_CONTRACT_INSTANCES} random
+	 * instances (see {@link #testContracts(Class, int)}).
+	 * 
+	 * @param inClass Class to test.
+	 * @return True if the contracts are respected.
+	 * @throws ServiceException describing the first broken contract.
+	 */
+	public static boolean testContracts(final Class<?> inClass) throws ServiceException {
+		return testContracts(inClass, DEFAULT_CONTRACT_INSTANCES);
+	}
+
+	/**
+	 * Check the equals, hashCode and toString contracts of a class over random instances filled in parallel : each
+	 * instance must be equal to an instance filled with the same values and have the same hash code, equals must be
+	 * reflexive, symmetric and false for null, hashCode stable and toString not null. A hashCode shared by many distinct
+	 * instances (more than 1/16th of them) is reported too, as it makes hash maps degenerate. When equals isn't
+	 * overridden, only hashCode and toString are checked.<br/>
+	 * The seed of the instances is part of the failure message.
+	 * 
+	 * @param inClass Class to test.
+	 * @param count   Number of random instances.
+	 * @return True if the contracts are respected.
+	 * @throws ServiceException describing the first broken contract.
+	 */
+	public static boolean testContracts(final Class<?> inClass, final int count) throws ServiceException {
+		ObjectContracts.of(inClass).verify(inClass, count, RandomSource.current().nextLong());
 		return true;
 	}
+
+	/**
+	 * Check the equals, hashCode and toString contracts of several classes concurrently (see
+	 * {@link #testContracts(Class, int)}), on a pool of one thread per available processor.
+	 * 
+	 * @param classes Classes to test.
+	 * @param count   Number of random instances per class.
+	 * @return the report of the verification : failure and time spent for each class.
+	 */
+	public static AccessorsReport testContracts(final Collection<Class<?>> classes, final int count) {
+		return new AccessorsReport(verifyAll(new ArrayList<>(classes), type -> testContracts(type, count)),
+				Collections.<Class<?>> emptyList());
+	}
+
+	/**
+	 * Measure the getters and setters of a class, after a warm-up, against a direct access to their field, to find the
+	 * accessors far more expensive than a field access (lazy loading, defensive deep copies, logging, ...) : more than 10
+	 * times slower, or allocating more than 32 bytes per call when the JVM can measure the allocations. The measured
+	 * object is filled with {@link FillerUtil#fill(Class)} first.<br/>
+	 * The measure is done on the calling thread and takes a few milliseconds per accessor : run it alone, not in
+	 * parallel with other tests.
+	 * 
+	 * @param inClass Class to profile.
+	 * @return the cost of each accessor.
+	 * @throws ServiceException If the class can't be instantiated or an accessor fails.
+	 */
+	public static AccessorsProfile profileAccessors(final Class<?> inClass) throws ServiceException {
+		try {
+			Object inObject = FillerUtil.fill(inClass);
+			return AccessorProfiler.profile(inObject, accessors(inObject, null));
+		} catch (final ServiceException | Error e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw new ServiceException(e);
+		}
+	}
+
+	/**
+	 * Each class is tested with its own {@link RandomSource}, split in order from the current source of the calling
+	 * thread : with a seeded source (see {@link RandomSourceRule}) the run is reproducible whatever the scheduling.
+	 * 
+	 * @param classes      Classes to test.
+	 * @param verification the test of a class.
+	 * @return the result of the verification of each class, in the same order.
+	 */
+	private static List<ClassResult> verifyAll(final List<Class<?>> classes, final Verification verification) {
+		RandomSource random = RandomSource.current();
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				Thread thread = new Thread(runnable, "accessors-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			List<Future<ClassResult>> futures = new ArrayList<>(classes.size());
+			for (final Class<?> type : classes) {
+				final RandomSource source = random.split();
+				futures.add(executor.submit(new Callable<ClassResult>() {
+					@Override
+					public ClassResult call() {
+						RandomSource.setCurrent(source);
+						try {
+							return verify(type, verification);
+						} finally {
+							RandomSource.setCurrent(null);
+						}
+					}
+				}));
+			}
+			List<ClassResult> results = new ArrayList<>(futures.size());
+			for (Future<ClassResult> future : futures) {
+				results.add(Futures.getUnchecked(future));
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Any failure of the test (an {@link AssertionError}, a {@link StackOverflowError} of a recursive accessor, ...) is
+	 * recorded in the result, so that the other classes are still reported; only the other {@link VirtualMachineError}s
+	 * are rethrown.
+	 * 
+	 * @param type         Class to test.
+	 * @param verification the test of a class.
+	 * @return the result of the test.
+	 */
+	private static ClassResult verify(final Class<?> type, final Verification verification) {
+		long start = System.nanoTime();
+		Throwable failure = null;
+		try {
+			verification.verify(type);
+		} catch (final Throwable e) {
+			if (e instanceof VirtualMachineError && !(e instanceof StackOverflowError)) {
+				throw (VirtualMachineError) e;
+			}
+			failure = e;
+		}
+		return new ClassResult(type, System.nanoTime() - start, failure);
+	}
+
+	/**
+	 * Test of a class run by {@link AccessorsUtil#verifyAll(List, Verification)}.
+	 */
+	@FunctionalInterface
+	private interface Verification {
+
+		/**
+		 * @param type Class to test.
+		 * @throws ServiceException if the test fails.
+		 */
+		void verify(Class<?> type) throws ServiceException;
+	}
 }
@@ -0,0 +1,62 @@
+package be.itlive.test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the current thread, read from the HotSpot {@link com.sun.management.ThreadMXBean} when the JVM
+ * supports it.
+ */
+final class Allocations {
+
+	private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private Allocations() {
+		super();
+	}
+
+	/**
+	 * @return the thread bean with allocation counting enabled, or null if not supported.
+	 */
+	private static com.sun.management.ThreadMXBean threads() {
+		try {
+			java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			if (threads instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+				if (hotspot.isThreadAllocatedMemorySupported()) {
+					if (!hotspot.isThreadAllocatedMemoryEnabled()) {
+						hotspot.setThreadAllocatedMemoryEnabled(true);
+					}
+					return hotspot;
+				}
+			}
+		} catch (final RuntimeException | LinkageError e) {
+			// not a HotSpot JVM.
+		}
+		return null;
+	}
+
+	/**
+	 * @return true if the allocated bytes can be measured.
+	 */
+	static boolean isSupported() {
+		return THREADS != null;
+	}
+
+	/**
+	 * @return total bytes allocated by the current thread, -1 if not supported.
+	 */
+	static long currentThread() {
+		return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * @param start value of {@link #currentThread()} at the start of the measure.
+	 * @return bytes allocated by the current thread since then, -1 if not supported.
+	 */
+	static long since(final long start) {
+		return start < 0 ? -1 : currentThread() - start;
+	}
+}
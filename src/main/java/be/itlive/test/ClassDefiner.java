@@ -0,0 +1,68 @@
+package be.itlive.test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Definition of the classes generated with javassist in the package of an existing class, through
+ * <code>MethodHandles.privateLookupIn(...).defineClass(...)</code> when the JVM provides it (Java 9+).<br/>
+ * The javassist version used defines classes by calling <code>ClassLoader.defineClass</code> reflectively, which
+ * requires <code>--add-opens java.base/java.lang=ALL-UNNAMED</code> from Java 16; the lookup doesn't. On Java 8 the
+ * javassist path is used.
+ */
+final class ClassDefiner {
+
+	private static final Method PRIVATE_LOOKUP_IN = method(MethodHandles.class, "privateLookupIn", Class.class, MethodHandles.Lookup.class);
+
+	private static final Method DEFINE_CLASS = method(MethodHandles.Lookup.class, "defineClass", byte[].class);
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private ClassDefiner() {
+		super();
+	}
+
+	/**
+	 * @param type           declaring class.
+	 * @param name           name of the method.
+	 * @param parameterTypes types of its parameters.
+	 * @return the method, or null if the JVM doesn't provide it.
+	 */
+	private static Method method(final Class<?> type, final String name, final Class<?>... parameterTypes) {
+		try {
+			return type.getMethod(name, parameterTypes);
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if classes can be defined through a lookup (Java 9+).
+	 */
+	static boolean isSupported() {
+		return PRIVATE_LOOKUP_IN != null && DEFINE_CLASS != null;
+	}
+
+	/**
+	 * @param neighbor a class of the package of the new class.
+	 * @param bytecode the class file of the new class.
+	 * @return the new class, defined by the class loader of the neighbor.
+	 * @throws ReflectiveOperationException if the class can't be defined.
+	 */
+	static Class<?> define(final Class<?> neighbor, final byte[] bytecode) throws ReflectiveOperationException {
+		try {
+			Object lookup = PRIVATE_LOOKUP_IN.invoke(null, neighbor, MethodHandles.lookup());
+			return (Class<?>) DEFINE_CLASS.invoke(lookup, (Object) bytecode);
+		} catch (final InvocationTargetException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+}
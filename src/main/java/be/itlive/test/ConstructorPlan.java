@@ -0,0 +1,194 @@
+package be.itlive.test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Constructor used by {@link FillerUtil} to instantiate a class, invoked through a cached {@link MethodHandle}:
+ * <ul>
+ * <li>the no-arg constructor when there is one;</li>
+ * <li>otherwise the canonical constructor of a record;</li>
+ * <li>otherwise the constructor with the most parameters (the public ones first).</li>
+ * </ul>
+ * When the constructor takes arguments, the final fields are considered set by it and are not filled afterwards, so
+ * immutable value types can be generated.<br/>
+ * Abstract classes and inner (non static) classes have no plan and are left to
+ * {@link be.itlive.common.utils.ReflectionUtils#newInstance(Class)}.
+ */
+final class ConstructorPlan {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConstructorPlan.class);
+
+	private static final ConstructorPlan NONE = new ConstructorPlan(null, new Class<?>[0]);
+
+	private static final Method IS_RECORD = recordMethod("isRecord");
+
+	private static final Method GET_RECORD_COMPONENTS = recordMethod("getRecordComponents");
+
+	private static final ClassValue<ConstructorPlan> PLANS = new ClassValue<ConstructorPlan>() {
+		@Override
+		protected ConstructorPlan computeValue(final Class<?> type) {
+			return create(type);
+		}
+	};
+
+	private final MethodHandle handle;
+
+	private final Class<?>[] parameterTypes;
+
+	/**
+	 * @param handle         the constructor adapted to (Object[])Object, or null.
+	 * @param parameterTypes types of its parameters.
+	 */
+	private ConstructorPlan(final MethodHandle handle, final Class<?>[] parameterTypes) {
+		this.handle = handle;
+		this.parameterTypes = parameterTypes;
+	}
+
+	/**
+	 * @param type the class to instantiate.
+	 * @return the cached constructor plan of the class.
+	 */
+	static ConstructorPlan of(final Class<?> type) {
+		return PLANS.get(type);
+	}
+
+	/**
+	 * @param type the class to instantiate.
+	 * @return the plan, {@link #NONE} if no constructor can be used.
+	 */
+	private static ConstructorPlan create(final Class<?> type) {
+		int modifiers = type.getModifiers();
+		if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(modifiers)
+				|| type.isMemberClass() && !Modifier.isStatic(modifiers) || type.isLocalClass() || type.isAnonymousClass()) {
+			return NONE;
+		}
+		Constructor<?> constructor = select(type);
+		if (constructor == null) {
+			return NONE;
+		}
+		try {
+			constructor.setAccessible(true);
+			int count = constructor.getParameterTypes().length;
+			MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor)
+					.asType(MethodType.genericMethodType(count)).asSpreader(Object[].class, count);
+			return new ConstructorPlan(handle, constructor.getParameterTypes());
+		} catch (final RuntimeException | IllegalAccessException e) {
+			LOGGER.debug("Constructor of {} can't be accessed : {}", type, e.getMessage());
+			return NONE;
+		}
+	}
+
+	/**
+	 * @param type a concrete class.
+	 * @return the constructor to use or null.
+	 */
+	private static Constructor<?> select(final Class<?> type) {
+		try {
+			return type.getDeclaredConstructor();
+		} catch (final NoSuchMethodException e) {
+			// no no-arg constructor.
+		}
+		Class<?>[] canonical = recordComponentTypes(type);
+		if (canonical != null) {
+			try {
+				return type.getDeclaredConstructor(canonical);
+			} catch (final NoSuchMethodException e) {
+				// not possible for a record.
+			}
+		}
+		Constructor<?> widest = null;
+		for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+			if (constructor.isSynthetic()) {
+				continue;
+			}
+			if (widest == null || constructor.getParameterTypes().length > widest.getParameterTypes().length
+					|| constructor.getParameterTypes().length == widest.getParameterTypes().length
+							&& Modifier.isPublic(constructor.getModifiers()) && !Modifier.isPublic(widest.getModifiers())) {
+				widest = constructor;
+			}
+		}
+		return widest;
+	}
+
+	/**
+	 * Records are only available from Java 16, so they are detected by reflection.
+	 *
+	 * @param type a class.
+	 * @return the types of the components of the record or null if the class is not a record.
+	 */
+	private static Class<?>[] recordComponentTypes(final Class<?> type) {
+		if (IS_RECORD == null || GET_RECORD_COMPONENTS == null) {
+			return null;
+		}
+		try {
+			if (!(Boolean) IS_RECORD.invoke(type)) {
+				return null;
+			}
+			Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+			Class<?>[] types = new Class<?>[components.length];
+			for (int i = 0; i < components.length; i++) {
+				types[i] = (Class<?>) components[i].getClass().getMethod("getType").invoke(components[i]);
+			}
+			return types;
+		} catch (final ReflectiveOperationException | RuntimeException e) {
+			LOGGER.debug("Record components of {} can't be read : {}", type, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @param name name of a method of {@link Class} about records.
+	 * @return the method or null before Java 16.
+	 */
+	private static Method recordMethod(final String name) {
+		try {
+			return Class.class.getMethod(name);
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if a constructor can be used.
+	 */
+	boolean isSupported() {
+		return handle != null;
+	}
+
+	/**
+	 * @return the types of the parameters of the constructor.
+	 */
+	Class<?>[] getParameterTypes() {
+		return parameterTypes.clone();
+	}
+
+	/**
+	 * @return number of parameters of the constructor.
+	 */
+	int getParameterCount() {
+		return parameterTypes.length;
+	}
+
+	/**
+	 * @param arguments the arguments of the constructor.
+	 * @return a new instance.
+	 * @throws InstantiationException if the constructor fails.
+	 */
+	Object newInstance(final Object... arguments) throws InstantiationException {
+		try {
+			return handle.invoke(arguments);
+		} catch (final Error e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw (InstantiationException) new InstantiationException(e.toString()).initCause(e);
+		}
+	}
+}
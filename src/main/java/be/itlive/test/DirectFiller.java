@@ -0,0 +1,17 @@
+package be.itlive.test;
+
+/**
+ * Filler generated at runtime by {@link FillerUtil} (see {@link FillerOptions#withGeneratedFillers(boolean)}) which
+ * writes the simple fields of an instance without reflection nor boxing.<br/>
+ * It is public only because the generated classes live in the package of the class they fill, it is not meant to be
+ * implemented.
+ */
+public interface DirectFiller {
+
+	/**
+	 * @param target  the instance to fill.
+	 * @param random  source of the random values.
+	 * @param strings generator of the String values.
+	 */
+	void fill(Object target, RandomSource random, RandomStrings strings);
+}
@@ -0,0 +1,237 @@
+package be.itlive.test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import be.itlive.test.FillPlan.FieldPlan;
+import be.itlive.test.FillPlan.Kind;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+
+/**
+ * Generate with javassist, for a given class, a {@link DirectFiller} which writes the simple fields (primitives,
+ * wrappers, String, Date, BigDecimal, BigInteger) directly or through their public setter. The values are the same as
+ * the ones of {@link FillerUtil#getRandomValue(Class)}.<br/>
+ * The other fields, and the classes for which no filler can be generated, are left to the reflective path.
+ */
+final class DirectFillers {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DirectFillers.class);
+
+	private static final Map<Class<?>, String> EXPRESSIONS = new HashMap<>();
+	static {
+		EXPRESSIONS.put(String.class, "strings.next(random)");
+		EXPRESSIONS.put(Date.class, "new java.util.Date(random.nextNonNegativeLong())");
+		EXPRESSIONS.put(boolean.class, "random.nextBoolean()");
+		EXPRESSIONS.put(double.class, "random.nextDouble() * random.nextInt()");
+		EXPRESSIONS.put(int.class, "random.nextInt()");
+		EXPRESSIONS.put(long.class, "random.nextNonNegativeLong()");
+		EXPRESSIONS.put(short.class, "(short) random.nextInt(0, 32767)");
+		EXPRESSIONS.put(char.class, "random.nextAsciiChar()");
+		EXPRESSIONS.put(float.class, "(float) (random.nextDouble() * random.nextInt())");
+		EXPRESSIONS.put(byte.class, "(byte) random.nextInt(0, 127)");
+		EXPRESSIONS.put(BigDecimal.class, "java.math.BigDecimal.valueOf(random.nextDouble())");
+		EXPRESSIONS.put(BigInteger.class, "java.math.BigInteger.valueOf((long) random.nextInt())");
+		EXPRESSIONS.put(Boolean.class, "Boolean.valueOf(" + EXPRESSIONS.get(boolean.class) + ")");
+		EXPRESSIONS.put(Double.class, "Double.valueOf(" + EXPRESSIONS.get(double.class) + ")");
+		EXPRESSIONS.put(Integer.class, "Integer.valueOf(" + EXPRESSIONS.get(int.class) + ")");
+		EXPRESSIONS.put(Long.class, "Long.valueOf(" + EXPRESSIONS.get(long.class) + ")");
+		EXPRESSIONS.put(Short.class, "Short.valueOf(" + EXPRESSIONS.get(short.class) + ")");
+		EXPRESSIONS.put(Character.class, "Character.valueOf(" + EXPRESSIONS.get(char.class) + ")");
+		EXPRESSIONS.put(Float.class, "Float.valueOf(" + EXPRESSIONS.get(float.class) + ")");
+		EXPRESSIONS.put(Byte.class, "Byte.valueOf(" + EXPRESSIONS.get(byte.class) + ")");
+	}
+
+	private static final ClassValue<Generated> GENERATED = new ClassValue<Generated>() {
+		@Override
+		protected Generated computeValue(final Class<?> type) {
+			return generate(type);
+		}
+	};
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private DirectFillers() {
+		super();
+	}
+
+	/**
+	 * @param type the class to fill.
+	 * @return the cached generated filler of the class.
+	 */
+	static Generated of(final Class<?> type) {
+		return GENERATED.get(type);
+	}
+
+	/**
+	 * @param type the class to fill.
+	 * @return the generated filler, without filler if the class can't be handled.
+	 */
+	private static Generated generate(final Class<?> type) {
+		List<FieldPlan> fields = FillPlan.of(type).getFields();
+		if (type.getClassLoader() == null || Modifier.isPrivate(type.getModifiers())) {
+			return new Generated(null, fields, Collections.<String> emptySet(), Collections.<Class<?>> emptySet());
+		}
+		StringBuilder body = new StringBuilder("public void fill(Object target, be.itlive.test.RandomSource random, be.itlive.test.RandomStrings strings) { ");
+		body.append(type.getName()).append(" t = (").append(type.getName()).append(") target; ");
+		List<FieldPlan> remaining = new ArrayList<>();
+		Set<String> handled = new HashSet<>();
+		Set<Class<?>> handledTypes = new HashSet<>();
+		for (FieldPlan field : fields) {
+			String statement = statement(type, field);
+			if (statement == null) {
+				remaining.add(field);
+			} else {
+				body.append(statement);
+				handled.add(field.getName());
+				handledTypes.add(field.getType());
+			}
+		}
+		body.append('}');
+		if (handled.isEmpty()) {
+			return new Generated(null, fields, Collections.<String> emptySet(), Collections.<Class<?>> emptySet());
+		}
+		try {
+			ClassPool pool = new ClassPool(true);
+			pool.appendClassPath(new LoaderClassPath(type.getClassLoader()));
+			CtClass ctFiller = pool.makeClass(type.getName() + "$$DirectFiller");
+			ctFiller.addInterface(pool.get(DirectFiller.class.getName()));
+			ctFiller.addConstructor(CtNewConstructor.defaultConstructor(ctFiller));
+			ctFiller.addMethod(CtNewMethod.make(body.toString(), ctFiller));
+			Class<?> fillerClass;
+			if (ClassDefiner.isSupported()) {
+				fillerClass = ClassDefiner.define(type, ctFiller.toBytecode());
+			} else {
+				fillerClass = ctFiller.toClass(type.getClassLoader(), type.getProtectionDomain());
+			}
+			ctFiller.detach();
+			return new Generated((DirectFiller) fillerClass.newInstance(), remaining, handled, handledTypes);
+		} catch (final CannotCompileException | NotFoundException | IOException | ReflectiveOperationException | RuntimeException
+				| LinkageError e) {
+			LOGGER.warn("No generated filler for {}, reflection will be used : {}", type, e.toString());
+			return new Generated(null, fields, Collections.<String> emptySet(), Collections.<Class<?>> emptySet());
+		}
+	}
+
+	/**
+	 * @param type  the class to fill.
+	 * @param field the field to write.
+	 * @return the javassist statement writing the field or null if it must be written with reflection.
+	 */
+	private static String statement(final Class<?> type, final FieldPlan field) {
+		String expression = EXPRESSIONS.get(field.getType());
+		int modifiers = field.getField().getModifiers();
+		if (field.getKind() != Kind.VALUE || expression == null || Modifier.isStatic(modifiers)
+				|| ValueGenerators.isRegistered(field.getType())) {
+			return null;
+		}
+		if (!Modifier.isFinal(modifiers) && (Modifier.isPublic(modifiers) || !Modifier.isPrivate(modifiers)
+				&& field.getField().getDeclaringClass().getClassLoader() == type.getClassLoader()
+				&& samePackage(field.getField().getDeclaringClass(), type))) {
+			return "t." + field.getName() + " = " + expression + "; ";
+		}
+		String setterName = "set" + StringUtils.capitalize(field.getName());
+		try {
+			Method setter = type.getMethod(setterName, field.getType());
+			if (Modifier.isPublic(setter.getDeclaringClass().getModifiers()) && !Modifier.isStatic(setter.getModifiers())) {
+				return "t." + setterName + "(" + expression + "); ";
+			}
+		} catch (final NoSuchMethodException e) {
+			// no setter : reflection.
+		}
+		return null;
+	}
+
+	/**
+	 * @param first  a class.
+	 * @param second another class.
+	 * @return true if both classes are in the same package.
+	 */
+	private static boolean samePackage(final Class<?> first, final Class<?> second) {
+		return StringUtils.substringBeforeLast(first.getName(), ".").equals(StringUtils.substringBeforeLast(second.getName(), "."));
+	}
+
+	/**
+	 * Generated filler of a class and the fields it doesn't handle.
+	 */
+	static final class Generated {
+
+		private final DirectFiller filler;
+
+		private final List<FieldPlan> remaining;
+
+		private final Set<String> handled;
+
+		private final Set<Class<?>> handledTypes;
+
+		/**
+		 * @param filler       the generated filler or null.
+		 * @param remaining    the fields which must be filled with reflection.
+		 * @param handled      the names of the fields written by the filler.
+		 * @param handledTypes the types of the fields written by the filler.
+		 */
+		private Generated(final DirectFiller filler, final List<FieldPlan> remaining, final Set<String> handled,
+				final Set<Class<?>> handledTypes) {
+			this.filler = filler;
+			this.remaining = Collections.unmodifiableList(remaining);
+			this.handled = handled;
+			this.handledTypes = handledTypes;
+		}
+
+		/**
+		 * @param fieldsNameToIgnore fields which must not be filled.
+		 * @return the generated filler, or null if there is none, if it would write an ignored field or if a
+		 *         {@link ValueGenerator} has been registered since for the type of a field it writes.
+		 */
+		DirectFiller getFiller(final String... fieldsNameToIgnore) {
+			if (filler != null) {
+				for (String ignored : fieldsNameToIgnore) {
+					if (handled.contains(ignored)) {
+						return null;
+					}
+				}
+				for (Class<?> type : handledTypes) {
+					if (ValueGenerators.isRegistered(type)) {
+						return null;
+					}
+				}
+			}
+			return filler;
+		}
+
+		/**
+		 * @return number of fields written by the generated filler.
+		 */
+		int getHandledCount() {
+			return handled.size();
+		}
+
+		/**
+		 * @return the fields which are not written by the generated filler.
+		 */
+		List<FieldPlan> getRemaining() {
+			return remaining;
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package be.itlive.test;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * State shared by all the objects built during one {@link FillerUtil} fill : source of random values, budget consumed
+ * and objects being filled.
+ */
+final class FillContext {
+
+	private static final int STRING_OVERHEAD = 40;
+
+	private static final int COLLECTION_OVERHEAD = 32;
+
+	private static final int REFERENCE_SIZE = 4;
+
+	private static final int ARRAY_OVERHEAD = 16;
+
+	private final FillerOptions options;
+
+	private final RandomSource random;
+
+	private final AtomicLong objects;
+
+	private final AtomicLong bytes;
+
+	private final LongAdder fields;
+
+	private final Deque<Object> path;
+
+	private final Map<Class<?>, Object> built;
+
+	private Set<Object> refilled;
+
+	/**
+	 * @param options settings of the fill.
+	 * @param random  source of random values.
+	 */
+	FillContext(final FillerOptions options, final RandomSource random) {
+		this.options = options;
+		this.random = random;
+		this.objects = new AtomicLong();
+		this.bytes = new AtomicLong();
+		this.fields = new LongAdder();
+		this.path = new ArrayDeque<>();
+		this.built = options.isInstanceSharing() ? new ConcurrentHashMap<Class<?>, Object>() : null;
+	}
+
+	/**
+	 * @param options settings of the fill.
+	 */
+	FillContext(final FillerOptions options) {
+		this(options, options.newRandom());
+	}
+
+	/**
+	 * @param parent context of the enclosing object.
+	 * @param random source of random values of the new context.
+	 */
+	private FillContext(final FillContext parent, final RandomSource random) {
+		this.options = parent.options;
+		this.random = random;
+		this.objects = parent.objects;
+		this.bytes = parent.bytes;
+		this.fields = parent.fields;
+		this.path = new ArrayDeque<>(parent.path);
+		this.built = parent.built;
+	}
+
+	/**
+	 * Create a context for a part of the fill done by another thread : the budget and the shared instances are common
+	 * with this context, the objects being filled are copied.
+	 *
+	 * @param random source of random values of the new context.
+	 * @return a new context.
+	 */
+	FillContext fork(final RandomSource random) {
+		return new FillContext(this, random);
+	}
+
+	/**
+	 * @return settings of the fill.
+	 */
+	FillerOptions getOptions() {
+		return options;
+	}
+
+	/**
+	 * @return source of random values.
+	 */
+	RandomSource getRandom() {
+		return random;
+	}
+
+	/**
+	 * @return true while the budget of the fill is not exhausted.
+	 */
+	boolean canCreate() {
+		return objects.get() < options.getMaxObjects() && bytes.get() < options.getMaxBytes();
+	}
+
+	/**
+	 * Record the creation of an object.
+	 *
+	 * @param type     the class of the needed object.
+	 * @param instance the new object (an instance of type or of a proxy of type).
+	 * @param size     its estimated size in bytes.
+	 */
+	void created(final Class<?> type, final Object instance, final long size) {
+		objects.incrementAndGet();
+		bytes.addAndGet(size);
+		if (built != null) {
+			built.putIfAbsent(type, instance);
+		}
+	}
+
+	/**
+	 * Record the creation of a collection or a map.
+	 *
+	 * @param instance the new collection.
+	 * @param capacity number of elements it will hold.
+	 */
+	void createdCollection(final Object instance, final int capacity) {
+		created(instance.getClass(), instance, COLLECTION_OVERHEAD + (long) REFERENCE_SIZE * capacity);
+	}
+
+	/**
+	 * Record the creation of an array.
+	 *
+	 * @param array  the new array.
+	 * @param length its length.
+	 */
+	void createdArray(final Object array, final int length) {
+		created(array.getClass(), array, ARRAY_OVERHEAD + (long) FillPlan.fieldSize(array.getClass().getComponentType()) * length);
+	}
+
+	/**
+	 * Record fields written.
+	 *
+	 * @param count number of fields.
+	 */
+	void written(final long count) {
+		fields.add(count);
+	}
+
+	/**
+	 * @return number of objects created so far.
+	 */
+	long getObjectCount() {
+		return objects.get();
+	}
+
+	/**
+	 * @return number of fields written so far.
+	 */
+	long getFieldCount() {
+		return fields.sum();
+	}
+
+	/**
+	 * Record the creation of a string.
+	 *
+	 * @param value the new string.
+	 */
+	void created(final String value) {
+		bytes.addAndGet(STRING_OVERHEAD + 2L * value.length());
+	}
+
+	/**
+	 * @param instance object whose fields are about to be filled.
+	 */
+	void enter(final Object instance) {
+		path.push(instance);
+	}
+
+	/**
+	 * The fields of the last entered object are filled.
+	 */
+	void leave() {
+		path.pop();
+	}
+
+	/**
+	 * Record that an object is refilled by {@link FillerUtil#refill(Object, FillerOptions)}.
+	 *
+	 * @param instance an object of the graph.
+	 * @return false if the object has already been refilled.
+	 */
+	boolean refilling(final Object instance) {
+		if (refilled == null) {
+			refilled = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		}
+		return refilled.add(instance);
+	}
+
+	/**
+	 * Find an instance to reuse when instance sharing is enabled : the closest enclosing object (excluding the one being
+	 * filled) assignable to the given class or, once the budget is exhausted, any object of that class already built.
+	 *
+	 * @param type class of the needed object.
+	 * @return an instance to reuse or null.
+	 */
+	Object findShared(final Class<?> type) {
+		if (built == null) {
+			return null;
+		}
+		Iterator<Object> enclosing = path.iterator();
+		if (enclosing.hasNext()) {
+			enclosing.next(); // the object being filled.
+		}
+		while (enclosing.hasNext()) {
+			Object candidate = enclosing.next();
+			if (type.isInstance(candidate)) {
+				return candidate;
+			}
+		}
+		if (!canCreate()) {
+			return built.get(type);
+		}
+		return null;
+	}
+}
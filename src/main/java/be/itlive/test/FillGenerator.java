@@ -0,0 +1,203 @@
+package be.itlive.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Infinite source of filled objects created by {@link FillerUtil#generator(Class, FillerOptions)}.<br/>
+ * By default each object is filled when it is requested. With {@link #prefetch(int)} a background thread fills the
+ * objects in advance into a bounded buffer, and blocks while the buffer is full : the consumer drives the producer.<br/>
+ * The n-th object only depends on the seed and on n, so a prefetching generator returns the same objects, in the same
+ * order, as a direct one.<br/>
+ * The generator ends when it is closed or when the producer fails : {@link #hasNext()} is then false, and
+ * {@link #next()} throws a {@link NoSuchElementException} caused by the failure, if any.
+ *
+ * @param <T> The class of the generated objects.
+ */
+public final class FillGenerator<T> implements Iterator<T>, AutoCloseable {
+
+	private static final Object END = new Object();
+
+	private final Class<T> inClass;
+
+	private final FillerOptions options;
+
+	private final long seed;
+
+	private final AtomicLong index = new AtomicLong();
+
+	private volatile BlockingQueue<Object> buffer;
+
+	private Thread producer;
+
+	private volatile Throwable failure;
+
+	private volatile boolean closed;
+
+	/**
+	 * Object taken from the buffer by {@link #hasNext()} and not returned yet.
+	 */
+	private Object pending;
+
+	/**
+	 * @param inClass The class of the needed objects.
+	 * @param options Settings of each fill.
+	 * @param seed    Seed of the generator.
+	 */
+	FillGenerator(final Class<T> inClass, final FillerOptions options, final long seed) {
+		this.inClass = inClass;
+		this.options = options;
+		this.seed = seed;
+	}
+
+	/**
+	 * Start a daemon thread which fills the next objects into a buffer. It must be stopped with {@link #close()}.
+	 *
+	 * @param capacity maximum number of objects filled in advance.
+	 * @return this
+	 */
+	public synchronized FillGenerator<T> prefetch(final int capacity) {
+		if (producer != null) {
+			throw new IllegalStateException("The generator is already prefetching");
+		}
+		buffer = new ArrayBlockingQueue<>(capacity);
+		producer = new Thread(this::produce, "FillGenerator-" + inClass.getSimpleName());
+		producer.setDaemon(true);
+		producer.start();
+		return this;
+	}
+
+	/**
+	 * Loop of the background producer. Whatever stops it, the end is queued after the objects already filled, so that
+	 * {@link #next()} never waits for a dead producer.
+	 */
+	private void produce() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				buffer.put(fillNext());
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final Throwable e) {
+			failure = e;
+		} finally {
+			try {
+				// waits for the consumer if the buffer is full.
+				buffer.put(END);
+			} catch (final InterruptedException e) {
+				// closed : close() queues the end.
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * @return the next object filled in the current thread.
+	 */
+	private T fillNext() {
+		return FillerUtil.fillElement(inClass, options, seed, index.getAndIncrement());
+	}
+
+	/**
+	 * @return true until the generator is closed or its producer has stopped, waiting for the producer if the buffer is
+	 *         empty.
+	 */
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+		if (buffer == null) {
+			return true;
+		}
+		if (pending == null) {
+			try {
+				pending = buffer.take();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the next filled object", e);
+			}
+		}
+		return pending != END;
+	}
+
+	/**
+	 * @return the next filled object, waiting for the producer if the buffer is empty.
+	 * @throws NoSuchElementException if the generator is closed or its producer has stopped.
+	 */
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw ended();
+		}
+		if (buffer == null) {
+			return fillNext();
+		}
+		@SuppressWarnings("unchecked")
+		T result = (T) pending;
+		pending = null;
+		return result;
+	}
+
+	/**
+	 * @return the exception thrown when there is no next object, caused by the failure of the producer, if any.
+	 */
+	private NoSuchElementException ended() {
+		if (failure == null) {
+			return new NoSuchElementException("The generator is closed");
+		}
+		return (NoSuchElementException) new NoSuchElementException("The generation of " + inClass + " failed").initCause(failure);
+	}
+
+	/**
+	 * @return an ordered stream of the next objects, infinite until the generator is closed (a failure of the producer
+	 *         is thrown). A parallel stream consumes the generator by batches.
+	 */
+	public Stream<T> stream() {
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+				Spliterator.ORDERED | Spliterator.NONNULL) {
+			@Override
+			public boolean tryAdvance(final Consumer<? super T> action) {
+				if (!hasNext() && failure == null) {
+					return false;
+				}
+				action.accept(next());
+				return true;
+			}
+		};
+		return StreamSupport.stream(spliterator, false).onClose(this::close);
+	}
+
+	/**
+	 * @return the seed of the generator.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * End the generator : stop the background producer, if any, and discard the objects filled in advance.
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		if (producer != null) {
+			producer.interrupt();
+			try {
+				producer.join();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			buffer.clear();
+			buffer.offer(END);
+		}
+	}
+}
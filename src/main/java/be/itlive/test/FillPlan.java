@@ -0,0 +1,340 @@
+package be.itlive.test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.reflect.TypeToken;
+
+import be.itlive.common.utils.GenericUtils;
+import be.itlive.common.utils.ReflectionUtils;
+
+/**
+ * Reflection metadata used by {@link FillerUtil} to fill a class: the fields to process, their kind, the resolved
+ * generic element types and the accessor handles.<br/>
+ * A plan is computed once per class and kept in a {@link ClassValue} cache, so repeated fills of the same class skip the
+ * reflection discovery.
+ */
+final class FillPlan {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FillPlan.class);
+
+	private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType WRITE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final int OBJECT_HEADER = 12;
+
+	private static final int REFERENCE_SIZE = 4;
+
+	private static final int ALIGNMENT = 8;
+
+	private static final ClassValue<FillPlan> PLANS = new ClassValue<FillPlan>() {
+		@Override
+		protected FillPlan computeValue(final Class<?> type) {
+			return new FillPlan(type);
+		}
+	};
+
+	/**
+	 * How a field is filled.
+	 */
+	enum Kind {
+		/** Single value (primitive, java.lang, java.math, enum or nested object). */
+		VALUE,
+		/** {@link Collection} field. */
+		COLLECTION,
+		/** {@link Map} field. */
+		MAP
+	}
+
+	private final Class<?> type;
+
+	private final List<FieldPlan> fields;
+
+	private final long shallowSize;
+
+	/**
+	 * @param type the class to inspect.
+	 */
+	private FillPlan(final Class<?> type) {
+		this.type = type;
+		List<FieldPlan> plans = new ArrayList<>();
+		for (Field field : ReflectionUtils.collectFields(type, Modifier.STATIC + Modifier.PRIVATE, Modifier.STATIC + Modifier.FINAL)) {
+			if (field.getName().startsWith("this$")) { // ignore this$ field, the implicit reference created by javac.
+				continue;
+			}
+			try {
+				plans.add(new FieldPlan(field));
+			} catch (final RuntimeException | IllegalAccessException e) {
+				LOGGER.warn("Field {} of {} can't be accessed and will not be filled: {}", field.getName(), type, e.getMessage());
+			}
+		}
+		this.fields = Collections.unmodifiableList(plans);
+		this.shallowSize = shallowSize(type);
+	}
+
+	/**
+	 * Estimate the size of an instance without the objects it references, assuming compressed references.
+	 *
+	 * @param type the class.
+	 * @return estimated size in bytes.
+	 */
+	private static long shallowSize(final Class<?> type) {
+		long size = OBJECT_HEADER;
+		for (Class<?> t = type; t != null; t = t.getSuperclass()) {
+			for (Field field : t.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					size += fieldSize(field.getType());
+				}
+			}
+		}
+		return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	/**
+	 * @param fieldType type of a field or of the elements of an array.
+	 * @return size in bytes of the field.
+	 */
+	static int fieldSize(final Class<?> fieldType) {
+		if (fieldType == long.class || fieldType == double.class) {
+			return Long.BYTES;
+		} else if (fieldType == int.class || fieldType == float.class) {
+			return Integer.BYTES;
+		} else if (fieldType == short.class || fieldType == char.class) {
+			return Short.BYTES;
+		} else if (fieldType == byte.class || fieldType == boolean.class) {
+			return Byte.BYTES;
+		}
+		return REFERENCE_SIZE;
+	}
+
+	/**
+	 * @param type the class to fill.
+	 * @return the cached plan of the class.
+	 */
+	static FillPlan of(final Class<?> type) {
+		return PLANS.get(type);
+	}
+
+	/**
+	 * @return the class described by this plan.
+	 */
+	Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return estimated size in bytes of an instance, without the objects it references.
+	 */
+	long getShallowSize() {
+		return shallowSize;
+	}
+
+	/**
+	 * @return all the fillable fields of the class (including the ones of its super classes).
+	 */
+	List<FieldPlan> getFields() {
+		return fields;
+	}
+
+	/**
+	 * @param fieldsNameToIgnore names of the fields to exclude (may be null or empty).
+	 * @return the fillable fields without the ignored ones.
+	 */
+	List<FieldPlan> getFields(final String... fieldsNameToIgnore) {
+		return without(fields, fieldsNameToIgnore);
+	}
+
+	/**
+	 * @param fields             fields of a plan.
+	 * @param fieldsNameToIgnore names of the fields to exclude (may be null or empty).
+	 * @return the given fields without the ignored ones.
+	 */
+	static List<FieldPlan> without(final List<FieldPlan> fields, final String... fieldsNameToIgnore) {
+		if (fieldsNameToIgnore == null || fieldsNameToIgnore.length == 0) {
+			return fields;
+		}
+		List<String> ignoredField = Arrays.asList(fieldsNameToIgnore);
+		List<FieldPlan> result = new ArrayList<>(fields.size());
+		for (FieldPlan field : fields) {
+			if (!ignoredField.contains(field.getName())) {
+				result.add(field);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param fields fields of a plan.
+	 * @return the given fields without the final ones.
+	 */
+	static List<FieldPlan> withoutFinal(final List<FieldPlan> fields) {
+		List<FieldPlan> result = new ArrayList<>(fields.size());
+		for (FieldPlan field : fields) {
+			if (!Modifier.isFinal(field.getField().getModifiers())) {
+				result.add(field);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Metadata of a single field.
+	 */
+	static final class FieldPlan {
+
+		private final Field field;
+
+		private final Kind kind;
+
+		private final Class<?> elementType;
+
+		private final Class<?> keyType;
+
+		private final MethodHandle getter;
+
+		private final MethodHandle setter;
+
+		/**
+		 * @param field the field.
+		 * @throws IllegalAccessException if the field can't be made accessible.
+		 */
+		private FieldPlan(final Field field) throws IllegalAccessException {
+			this.field = field;
+			Class<?> fieldType = field.getType();
+			if (Map.class.isAssignableFrom(fieldType)) {
+				this.kind = Kind.MAP;
+				TypeToken<?> token = TypeToken.of(field.getGenericType());
+				this.keyType = resolve(token, Map.class.getTypeParameters()[0]);
+				this.elementType = resolve(token, Map.class.getTypeParameters()[1]);
+			} else if (Collection.class.isAssignableFrom(fieldType)) {
+				this.kind = Kind.COLLECTION;
+				this.elementType = GenericUtils.getGenericCollectionType(field);
+				this.keyType = null;
+			} else {
+				this.kind = Kind.VALUE;
+				this.elementType = null;
+				this.keyType = null;
+			}
+			field.setAccessible(true);
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			this.getter = lookup.unreflectGetter(field).asType(READ_TYPE);
+			this.setter = unreflectSetter(lookup, field);
+		}
+
+		/**
+		 * @param token     generic type of the field.
+		 * @param parameter a type parameter of a super type of the field.
+		 * @return the class bound to the parameter, or null if it is not a plain class (type variable, wildcard, generic
+		 *         type).
+		 */
+		private static Class<?> resolve(final TypeToken<?> token, final TypeVariable<?> parameter) {
+			Type resolved = token.resolveType(parameter).getType();
+			return resolved instanceof Class ? (Class<?>) resolved : null;
+		}
+
+		/**
+		 * @param lookup lookup.
+		 * @param field  accessible field.
+		 * @return a setter handle or null when the field can only be written through reflection (final field).
+		 */
+		private static MethodHandle unreflectSetter(final MethodHandles.Lookup lookup, final Field field) {
+			try {
+				return lookup.unreflectSetter(field).asType(WRITE_TYPE);
+			} catch (final IllegalAccessException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * @return the reflected field.
+		 */
+		Field getField() {
+			return field;
+		}
+
+		/**
+		 * @return the field name.
+		 */
+		String getName() {
+			return field.getName();
+		}
+
+		/**
+		 * @return the declared type of the field.
+		 */
+		Class<?> getType() {
+			return field.getType();
+		}
+
+		/**
+		 * @return how the field should be filled.
+		 */
+		Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the element type of a collection field, the value type of a map field, or null when it can't be
+		 *         determined.
+		 */
+		Class<?> getElementType() {
+			return elementType;
+		}
+
+		/**
+		 * @return the key type of a map field or null when it can't be determined.
+		 */
+		Class<?> getKeyType() {
+			return keyType;
+		}
+
+		/**
+		 * @param target the object holding the field.
+		 * @return the current value of the field.
+		 * @throws IllegalAccessException if the field can't be read.
+		 */
+		Object read(final Object target) throws IllegalAccessException {
+			try {
+				return getter.invokeExact(target);
+			} catch (final RuntimeException | Error e) {
+				throw e;
+			} catch (final Throwable e) {
+				throw (IllegalAccessException) new IllegalAccessException(e.getMessage()).initCause(e);
+			}
+		}
+
+		/**
+		 * @param target the object holding the field.
+		 * @param value  the new value.
+		 * @throws IllegalAccessException if the field can't be written.
+		 */
+		void write(final Object target, final Object value) throws IllegalAccessException {
+			if (setter == null) {
+				field.set(target, value);
+				return;
+			}
+			try {
+				setter.invokeExact(target, value);
+			} catch (final RuntimeException | Error e) {
+				throw e;
+			} catch (final Throwable e) {
+				throw (IllegalAccessException) new IllegalAccessException(e.getMessage()).initCause(e);
+			}
+		}
+	}
+}
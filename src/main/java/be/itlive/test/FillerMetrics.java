@@ -0,0 +1,267 @@
+package be.itlive.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in metrics of the {@link FillerUtil} fills, per filled class : calls, objects created, fields written, time spent
+ * and bytes allocated (by the calling thread, when the JVM can measure it).<br/>
+ * Example of use :
+ *
+ * <pre>
+ * FillerMetrics.enable();
+ * // run the fixtures ...
+ * FillerMetrics.snapshot().forEach(metrics -&gt; LOGGER.info("{}", metrics));
+ * </pre>
+ *
+ * The same metrics are available through JMX once {@link #registerMBean()} has been called.
+ */
+public final class FillerMetrics {
+
+	/**
+	 * Name of the MBean.
+	 */
+	public static final String OBJECT_NAME = "be.itlive.test:type=FillerMetrics";
+
+	private static final ConcurrentMap<Class<?>, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+	private static volatile boolean enabled;
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private FillerMetrics() {
+		super();
+	}
+
+	/**
+	 * Start measuring the fills.
+	 */
+	public static void enable() {
+		enabled = true;
+	}
+
+	/**
+	 * Stop measuring the fills, the metrics recorded so far are kept.
+	 */
+	public static void disable() {
+		enabled = false;
+	}
+
+	/**
+	 * @return true if the fills are measured.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Forget the metrics recorded so far.
+	 */
+	public static void reset() {
+		COUNTERS.clear();
+	}
+
+	/**
+	 * @return the metrics of each filled class, the most expensive (time spent) first.
+	 */
+	public static List<ClassMetrics> snapshot() {
+		List<ClassMetrics> snapshot = new ArrayList<>(COUNTERS.size());
+		for (Map.Entry<Class<?>, Counters> entry : COUNTERS.entrySet()) {
+			snapshot.add(entry.getValue().snapshot(entry.getKey()));
+		}
+		snapshot.sort((first, second) -> Long.compare(second.getNanos(), first.getNanos()));
+		return Collections.unmodifiableList(snapshot);
+	}
+
+	/**
+	 * @param type a filled class.
+	 * @return the metrics of the class or null if it has not been filled.
+	 */
+	public static ClassMetrics snapshot(final Class<?> type) {
+		Counters counters = COUNTERS.get(type);
+		return counters == null ? null : counters.snapshot(type);
+	}
+
+	/**
+	 * Register the {@link FillerMetricsMXBean} in the platform MBean server, if not done yet.
+	 */
+	public static void registerMBean() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new MBean(), new ObjectName(OBJECT_NAME));
+		} catch (final InstanceAlreadyExistsException e) {
+			// already registered.
+		} catch (final JMException e) {
+			throw new IllegalStateException("Can't register " + OBJECT_NAME, e);
+		}
+	}
+
+	/**
+	 * Record a fill.
+	 *
+	 * @param type      the filled class.
+	 * @param objects   number of objects created.
+	 * @param fields    number of fields written.
+	 * @param nanos     time spent.
+	 * @param allocated bytes allocated, -1 if unknown.
+	 */
+	static void record(final Class<?> type, final long objects, final long fields, final long nanos, final long allocated) {
+		Counters counters = COUNTERS.computeIfAbsent(type, key -> new Counters());
+		counters.calls.increment();
+		counters.objects.add(objects);
+		counters.fields.add(fields);
+		counters.nanos.add(nanos);
+		if (allocated >= 0) {
+			counters.allocated.add(allocated);
+		}
+	}
+
+	/**
+	 * Counters of a class.
+	 */
+	private static final class Counters {
+
+		private final LongAdder calls = new LongAdder();
+
+		private final LongAdder objects = new LongAdder();
+
+		private final LongAdder fields = new LongAdder();
+
+		private final LongAdder nanos = new LongAdder();
+
+		private final LongAdder allocated = new LongAdder();
+
+		/**
+		 * @param type the filled class.
+		 * @return the current values.
+		 */
+		ClassMetrics snapshot(final Class<?> type) {
+			return new ClassMetrics(type.getName(), calls.sum(), objects.sum(), fields.sum(), nanos.sum(),
+					Allocations.isSupported() ? allocated.sum() : -1);
+		}
+	}
+
+	/**
+	 * Metrics of a filled class.
+	 */
+	public static final class ClassMetrics {
+
+		private final String className;
+
+		private final long calls;
+
+		private final long objects;
+
+		private final long fields;
+
+		private final long nanos;
+
+		private final long allocatedBytes;
+
+		/**
+		 * @param className      name of the filled class.
+		 * @param calls          number of fills.
+		 * @param objects        objects created.
+		 * @param fields         fields written.
+		 * @param nanos          time spent.
+		 * @param allocatedBytes bytes allocated, -1 if unknown.
+		 */
+		ClassMetrics(final String className, final long calls, final long objects, final long fields, final long nanos,
+				final long allocatedBytes) {
+			this.className = className;
+			this.calls = calls;
+			this.objects = objects;
+			this.fields = fields;
+			this.nanos = nanos;
+			this.allocatedBytes = allocatedBytes;
+		}
+
+		/**
+		 * @return name of the filled class.
+		 */
+		public String getClassName() {
+			return className;
+		}
+
+		/**
+		 * @return number of fills.
+		 */
+		public long getCalls() {
+			return calls;
+		}
+
+		/**
+		 * @return objects created (the filled objects, nested objects, collections, maps and arrays).
+		 */
+		public long getObjects() {
+			return objects;
+		}
+
+		/**
+		 * @return fields written.
+		 */
+		public long getFields() {
+			return fields;
+		}
+
+		/**
+		 * @return time spent in nanoseconds.
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * @return bytes allocated by the calling threads, -1 if the JVM can't measure it.
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+
+		@Override
+		public String toString() {
+			return className + " : " + calls + " calls, " + objects + " objects, " + fields + " fields, " + nanos / 1_000_000 + " ms, "
+					+ allocatedBytes + " bytes";
+		}
+	}
+
+	/**
+	 * The registered MBean.
+	 */
+	private static final class MBean implements FillerMetricsMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return FillerMetrics.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(final boolean enabled) {
+			if (enabled) {
+				enable();
+			} else {
+				disable();
+			}
+		}
+
+		@Override
+		public List<ClassMetrics> getClasses() {
+			return snapshot();
+		}
+
+		@Override
+		public void reset() {
+			FillerMetrics.reset();
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package be.itlive.test;
+
+import java.util.List;
+
+/**
+ * JMX view of {@link FillerMetrics}, registered with {@link FillerMetrics#registerMBean()} under
+ * {@value FillerMetrics#OBJECT_NAME}.
+ */
+public interface FillerMetricsMXBean {
+
+	/**
+	 * @return true if the fills are measured.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * @param enabled true to measure the fills.
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return the metrics of each filled class, the most expensive first.
+	 */
+	List<FillerMetrics.ClassMetrics> getClasses();
+
+	/**
+	 * Forget the metrics recorded so far.
+	 */
+	void reset();
+}
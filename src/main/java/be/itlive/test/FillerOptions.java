@@ -0,0 +1,366 @@
+package be.itlive.test;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * Settings of a {@link FillerUtil#fill(Class, FillerOptions)} call.<br/>
+ * Example of use :
+ *
+ * <pre>
+ * FillerUtil.fill(Data.class, FillerOptions.options().withMaxDepth(2).withSeed(42L).ignoring("id"));
+ * </pre>
+ */
+public final class FillerOptions {
+
+	/**
+	 * Default depth until which nested objects are instantiated.
+	 */
+	public static final int DEFAULT_DEPTH = 3;
+
+	/**
+	 * Default number of elements generated in a collection.
+	 */
+	public static final int DEFAULT_COLLECTION_SIZE = 10;
+
+	/**
+	 * Default number of entries generated in a map.
+	 */
+	public static final int DEFAULT_MAP_SIZE = 10;
+
+	/**
+	 * Default length of the generated arrays.
+	 */
+	public static final int DEFAULT_ARRAY_SIZE = 10;
+
+	private boolean setSuperFields = true;
+
+	private int maxDepth = DEFAULT_DEPTH;
+
+	private String[] fieldsNameToIgnore = ArrayUtils.EMPTY_STRING_ARRAY;
+
+	private RandomSource random;
+
+	private Long seed;
+
+	private boolean generatedFillers;
+
+	private int collectionSize = DEFAULT_COLLECTION_SIZE;
+
+	private int arraySize = DEFAULT_ARRAY_SIZE;
+
+	private int mapSize = DEFAULT_MAP_SIZE;
+
+	private boolean presizedMaps;
+
+	private int maxObjects = Integer.MAX_VALUE;
+
+	private long maxBytes = Long.MAX_VALUE;
+
+	private boolean instanceSharing;
+
+	private boolean lazyFill;
+
+	private RandomStrings strings = RandomStrings.defaults();
+
+	private int parallelThreshold;
+
+	/**
+	 * @return new options with the default settings.
+	 */
+	public static FillerOptions options() {
+		return new FillerOptions();
+	}
+
+	/**
+	 * @param setSuperFields If true the fields of the super class are taken into account (default true).
+	 * @return this
+	 */
+	public FillerOptions withSuperFields(final boolean setSuperFields) {
+		this.setSuperFields = setSuperFields;
+		return this;
+	}
+
+	/**
+	 * @param maxDepth until what depth fields should be instantiate (default=3).
+	 * @return this
+	 */
+	public FillerOptions withMaxDepth(final int maxDepth) {
+		this.maxDepth = maxDepth;
+		return this;
+	}
+
+	/**
+	 * @param fieldsNameToIgnore names of the fields of the root object which should not be processed.
+	 * @return this
+	 */
+	public FillerOptions ignoring(final String... fieldsNameToIgnore) {
+		this.fieldsNameToIgnore = ArrayUtils.nullToEmpty(fieldsNameToIgnore);
+		return this;
+	}
+
+	/**
+	 * @param random source of the random values (default {@link RandomSource#current()}).
+	 * @return this
+	 */
+	public FillerOptions withRandom(final RandomSource random) {
+		this.random = random;
+		this.seed = null;
+		return this;
+	}
+
+	/**
+	 * @param seed seed of the random values, each fill with these options starts a new {@link RandomSource#seeded(long)}
+	 *             source and so builds the same objects.
+	 * @return this
+	 */
+	public FillerOptions withSeed(final long seed) {
+		this.seed = seed;
+		this.random = null;
+		return this;
+	}
+
+	/**
+	 * @param generatedFillers If true the simple fields (primitives, wrappers, String, Date, BigDecimal, BigInteger) are
+	 *                         written by a class generated with javassist instead of reflection. Classes which can't be
+	 *                         handled that way are filled with reflection (default false). The values drawn for a
+	 *                         given seed differ from the ones of the reflective fill.
+	 * @return this
+	 */
+	public FillerOptions withGeneratedFillers(final boolean generatedFillers) {
+		this.generatedFillers = generatedFillers;
+		return this;
+	}
+
+	/**
+	 * @param collectionSize number of elements generated in each collection (default 10).
+	 * @return this
+	 */
+	public FillerOptions withCollectionSize(final int collectionSize) {
+		this.collectionSize = collectionSize;
+		return this;
+	}
+
+	/**
+	 * @param mapSize number of entries generated in each map (default 10). Less entries are generated when keys collide.
+	 * @return this
+	 */
+	public FillerOptions withMapSize(final int mapSize) {
+		this.mapSize = mapSize;
+		return this;
+	}
+
+	/**
+	 * @param presizedMaps If true the Map, HashMap and LinkedHashMap fields are created with a capacity holding
+	 *                     {@link #withMapSize(int) mapSize} entries without rehashing (default false).
+	 * @return this
+	 */
+	public FillerOptions withPresizedMaps(final boolean presizedMaps) {
+		this.presizedMaps = presizedMaps;
+		return this;
+	}
+
+	/**
+	 * @param arraySize length of the generated arrays (default 10).
+	 * @return this
+	 */
+	public FillerOptions withArraySize(final int arraySize) {
+		this.arraySize = arraySize;
+		return this;
+	}
+
+	/**
+	 * @param maxObjects maximum number of objects (nested objects and collections) created by one fill. Once reached, the
+	 *                   nested objects are left null (or shared, see {@link #withInstanceSharing(boolean)}) and the
+	 *                   collections stay empty. The simple fields of the created objects are still filled.
+	 * @return this
+	 */
+	public FillerOptions withMaxObjects(final int maxObjects) {
+		this.maxObjects = maxObjects;
+		return this;
+	}
+
+	/**
+	 * @param maxBytes maximum estimated size in bytes of the objects and strings created by one fill, it works like
+	 *                 {@link #withMaxObjects(int)}. The estimate assumes compressed references.
+	 * @return this
+	 */
+	public FillerOptions withMaxBytes(final long maxBytes) {
+		this.maxBytes = maxBytes;
+		return this;
+	}
+
+	/**
+	 * @param instanceSharing If true, a field whose type is the one of an enclosing object being filled references that
+	 *                        object (back-reference) instead of a new instance, and once the budget is exhausted the nested
+	 *                        objects reference an instance of the same class already built (default false).
+	 * @return this
+	 */
+	public FillerOptions withInstanceSharing(final boolean instanceSharing) {
+		this.instanceSharing = instanceSharing;
+		return this;
+	}
+
+	/**
+	 * @param lazyFill If true the objects are javassist proxies whose nested objects, collections and maps are only
+	 *                 generated on the first call of their getter (the simple fields are filled immediately). Fields
+	 *                 without getter, and classes which can't be proxied (final, without no-arg constructor, inner
+	 *                 classes), are filled eagerly. Code reading the fields directly (equals, toString, ...) sees
+	 *                 <code>null</code> until the getter has been called (default false).
+	 * @return this
+	 */
+	public FillerOptions withLazyFill(final boolean lazyFill) {
+		this.lazyFill = lazyFill;
+		return this;
+	}
+
+	/**
+	 * @param strings generator of the values of the String fields (default {@link RandomStrings#defaults()}, 25 printable
+	 *                ASCII chars).
+	 * @return this
+	 */
+	public FillerOptions withStrings(final RandomStrings strings) {
+		this.strings = strings;
+		return this;
+	}
+
+	/**
+	 * @param parallelThreshold minimum size from which the elements of a collection of nested objects are filled in
+	 *                          parallel in the common {@link java.util.concurrent.ForkJoinPool} (default 0, disabled).
+	 *                          Each element is seeded from one value of the fill and its index, so a seeded fill stays
+	 *                          reproducible, but the values differ from the sequential fill and a
+	 *                          {@link #withMaxObjects(int) budget} is not consumed in a deterministic order.
+	 * @return this
+	 */
+	public FillerOptions withParallelThreshold(final int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+		return this;
+	}
+
+	/**
+	 * @return true if the fields of the super classes are filled.
+	 */
+	boolean isSetSuperFields() {
+		return setSuperFields;
+	}
+
+	/**
+	 * @return depth until which nested objects are instantiated.
+	 */
+	int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @return names of the ignored fields of the root object.
+	 */
+	String[] getFieldsNameToIgnore() {
+		return fieldsNameToIgnore;
+	}
+
+	/**
+	 * @return the seed or null if none has been given.
+	 */
+	Long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return true if the simple fields are written by generated fillers.
+	 */
+	boolean isGeneratedFillers() {
+		return generatedFillers;
+	}
+
+	/**
+	 * @return number of elements generated in a collection.
+	 */
+	int getCollectionSize() {
+		return collectionSize;
+	}
+
+	/**
+	 * @return number of entries generated in a map.
+	 */
+	int getMapSize() {
+		return mapSize;
+	}
+
+	/**
+	 * @return true if the hash maps are created with the capacity of their entries.
+	 */
+	boolean isPresizedMaps() {
+		return presizedMaps;
+	}
+
+	/**
+	 * @return length of the generated arrays.
+	 */
+	int getArraySize() {
+		return arraySize;
+	}
+
+	/**
+	 * @return maximum number of objects created by a fill.
+	 */
+	int getMaxObjects() {
+		return maxObjects;
+	}
+
+	/**
+	 * @return maximum estimated size of the objects created by a fill.
+	 */
+	long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * @return true if instances are shared for back-references and once the budget is exhausted.
+	 */
+	boolean isInstanceSharing() {
+		return instanceSharing;
+	}
+
+	/**
+	 * @return true if nested objects are generated on first access.
+	 */
+	boolean isLazyFill() {
+		return lazyFill;
+	}
+
+	/**
+	 * @return generator of the String values.
+	 */
+	RandomStrings getStrings() {
+		return strings;
+	}
+
+	/**
+	 * @return minimum size of the collections filled in parallel, 0 if disabled.
+	 */
+	int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * @return description of the settings which change the generated objects, except the seed and the source.
+	 */
+	String fingerprint() {
+		return "superFields=" + setSuperFields + ",maxDepth=" + maxDepth + ",ignoring=" + String.join("|", fieldsNameToIgnore)
+				+ ",generatedFillers=" + generatedFillers + ",collectionSize=" + collectionSize + ",arraySize=" + arraySize + ",mapSize=" + mapSize
+				+ ",maxObjects=" + maxObjects + ",maxBytes=" + maxBytes + ",instanceSharing=" + instanceSharing + ",strings=" + strings
+				+ ",parallelThreshold=" + parallelThreshold;
+	}
+
+	/**
+	 * @return the source to use for a new fill.
+	 */
+	RandomSource newRandom() {
+		if (seed != null) {
+			return RandomSource.seeded(seed);
+		}
+		if (random != null) {
+			return random;
+		}
+		return RandomSource.current();
+	}
+}
@@ -1,26 +1,36 @@
 package be.itlive.test;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Date;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.RandomStringUtils;
-import org.apache.commons.lang3.RandomUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import be.itlive.common.utils.GenericUtils;
 import be.itlive.common.utils.ReflectionUtils;
+import be.itlive.test.DirectFillers.Generated;
+import be.itlive.test.FillPlan.FieldPlan;
+import be.itlive.test.FillPlan.Kind;
+import be.itlive.test.LazyProxies.LazyProxy;
+import be.itlive.test.ValueGenerators.Dispatch;
+import javassist.util.proxy.MethodHandler;
+import javassist.util.proxy.ProxyFactory;
+import javassist.util.proxy.ProxyObject;
 
 /**
  *
@@ -32,7 +42,8 @@ import be.itlive.common.utils.ReflectionUtils;
 public final class FillerUtil {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(FillerUtil.class);
-	private static final int DEFAULT_DEPTH = 3;
+	private static final int DEFAULT_DEPTH = FillerOptions.DEFAULT_DEPTH;
+	private static final FillerOptions DEFAULT_OPTIONS = FillerOptions.options();
 
 	/**
 	 * Prevent instantiation.
@@ -81,7 +92,318 @@ public final class FillerUtil {
 	 * @return An instance fully filled with random values.
 	 */
 	public static <T> T fill(final Class<T> inClass, final boolean setSuperFields, final int maxDepth, final String... fieldsNameToIgnore) {
-		return fill(inClass, setSuperFields, maxDepth, 0, fieldsNameToIgnore);
+		return fill(inClass, FillerOptions.options().withSuperFields(setSuperFields).withMaxDepth(maxDepth).ignoring(fieldsNameToIgnore));
+	}
+
+	/**
+	 * Take a class in parameter and fill the Object with random values (see {@link #fill(Class, String...)}) according to
+	 * the given options.
+	 *
+	 * @param         <T> The class to fill.
+	 * @param inClass The class of the needed object.
+	 * @param options Settings of the fill.
+	 * @return An instance fully filled with random values.
+	 */
+	public static <T> T fill(final Class<T> inClass, final FillerOptions options) {
+		return fillRoot(inClass, new FillContext(options));
+	}
+
+	/**
+	 * Take a class in parameter and fill the Object with random values drawn from the given source (see
+	 * {@link #fill(Class, String...)}). With a seeded source the same object is built on each call.
+	 *
+	 * @param                    <T> The class to fill.
+	 * @param inClass            The class of the needed object.
+	 * @param random             The source of random values.
+	 * @param fieldsNameToIgnore If some fields should not be processed you can exclude them by giving their names.
+	 * @return An instance fully filled with random values.
+	 */
+	public static <T> T fill(final Class<T> inClass, final RandomSource random, final String... fieldsNameToIgnore) {
+		return fill(inClass, FillerOptions.options().withRandom(random).ignoring(fieldsNameToIgnore));
+	}
+
+	/**
+	 * Fill a batch of objects (see {@link #fill(Class, String...)}) using all the cores of the machine. The result only
+	 * depends on the seed, not on the number of threads used to build it.
+	 *
+	 * @param                    <T> The class to fill.
+	 * @param inClass            The class of the needed objects.
+	 * @param count              Number of objects to create.
+	 * @param seed               Seed of the random values.
+	 * @param fieldsNameToIgnore If some fields should not be processed you can exclude them by giving their names.
+	 * @return a list of <code>count</code> filled instances.
+	 */
+	public static <T> List<T> fillMany(final Class<T> inClass, final int count, final long seed, final String... fieldsNameToIgnore) {
+		return fillMany(inClass, count, FillerOptions.options().withSeed(seed).ignoring(fieldsNameToIgnore));
+	}
+
+	/**
+	 * Fill a batch of objects according to the given options using all the cores of the machine (see
+	 * {@link #fillMany(Class, int, long, String...)}). When the options have no seed, the seed used is logged at debug
+	 * level to allow to replay the batch.
+	 *
+	 * @param         <T> The class to fill.
+	 * @param inClass The class of the needed objects.
+	 * @param count   Number of objects to create.
+	 * @param options Settings of the fill.
+	 * @return a list of <code>count</code> filled instances.
+	 */
+	public static <T> List<T> fillMany(final Class<T> inClass, final int count, final FillerOptions options) {
+		long seed = batchSeed(inClass, options);
+		Object[] result = new Object[count];
+		ForkJoinPool.commonPool().invoke(new FillManyTask(inClass, options, seed, result, 0, count));
+		@SuppressWarnings("unchecked")
+		List<T> list = (List<T>) Arrays.asList(result);
+		return list;
+	}
+
+	/**
+	 * Fill a batch of objects using all the cores of the machine (see {@link #fillMany(Class, int, long, String...)}). The
+	 * seed used is logged at debug level to allow to replay the batch.
+	 *
+	 * @param                    <T> The class to fill.
+	 * @param inClass            The class of the needed objects.
+	 * @param count              Number of objects to create.
+	 * @param fieldsNameToIgnore If some fields should not be processed you can exclude them by giving their names.
+	 * @return a list of <code>count</code> filled instances.
+	 */
+	public static <T> List<T> fillMany(final Class<T> inClass, final int count, final String... fieldsNameToIgnore) {
+		return fillMany(inClass, count, FillerOptions.options().ignoring(fieldsNameToIgnore));
+	}
+
+	/**
+	 * Sized and parallel stream of filled objects. The n-th element of the stream is always the same for a given seed.
+	 *
+	 * @param                    <T> The class to fill.
+	 * @param inClass            The class of the needed objects.
+	 * @param count              Number of objects in the stream.
+	 * @param seed               Seed of the random values.
+	 * @param fieldsNameToIgnore If some fields should not be processed you can exclude them by giving their names.
+	 * @return a parallel stream of <code>count</code> filled instances.
+	 */
+	public static <T> Stream<T> fillStream(final Class<T> inClass, final int count, final long seed, final String... fieldsNameToIgnore) {
+		FillerOptions options = FillerOptions.options().ignoring(fieldsNameToIgnore);
+		return IntStream.range(0, count).parallel().mapToObj(i -> fillElement(inClass, options, seed, i));
+	}
+
+	/**
+	 * Fill an instance (see {@link #fill(Class, FillerOptions)}) and keep a binary snapshot of it under
+	 * <code>target/filler-cache</code>, so that the next calls, in this run, in later runs or in other forks, read the
+	 * snapshot instead of building the graph again. Each call returns a new copy.<br/>
+	 * The snapshot is replaced when the fields of a class of the graph change. It is not used (the object is simply
+	 * filled) for lazy fills, when custom {@link ValueGenerators} are registered, or for graphs with objects which
+	 * can't be rebuilt from their fields (no no-arg constructor) or collections and maps which can't be rebuilt
+	 * (unmodifiable, fixed-size, immutable).
+	 *
+	 * @param         <T> The class to fill.
+	 * @param inClass The class of the needed object.
+	 * @param options Settings of the fill, with a {@link FillerOptions#withSeed(long) seed}.
+	 * @return An instance fully filled with random values.
+	 */
+	public static <T> T fillCached(final Class<T> inClass, final FillerOptions options) {
+		if (options.getSeed() == null) {
+			throw new IllegalArgumentException("A seed is needed to cache the fill of " + inClass);
+		}
+		if (options.isLazyFill() || ValueGenerators.hasCustom()) {
+			return fill(inClass, options);
+		}
+		Path file = FixtureCache.file(inClass, options);
+		T fixture = FixtureCache.load(inClass, file);
+		if (fixture == null) {
+			fixture = fill(inClass, options);
+			FixtureCache.store(fixture, file);
+		}
+		return fixture;
+	}
+
+	/**
+	 * Re-randomise in place the fields of an object graph built by {@link #fill(Class)} or by the test, without
+	 * allocating a new graph: the nested objects are refilled, the collections are cleared and receive new elements, the
+	 * arrays are rewritten. Only the missing (null) objects are created, as well as the collections and maps which can't
+	 * be modified (unmodifiable, fixed-size, ...). The lazy fields of a proxy (see
+	 * {@link FillerOptions#withLazyFill(boolean)}) are filled at once and no longer by their getter.
+	 *
+	 * @param          <T> The class of the instance.
+	 * @param instance The object to refill.
+	 * @return the same instance.
+	 */
+	public static <T> T refill(final T instance) {
+		return refill(instance, DEFAULT_OPTIONS);
+	}
+
+	/**
+	 * Re-randomise in place the fields of an object graph (see {@link #refill(Object)}).
+	 *
+	 * @param          <T> The class of the instance.
+	 * @param instance The object to refill.
+	 * @param options  Settings of the refill.
+	 * @return the same instance.
+	 */
+	public static <T> T refill(final T instance, final FillerOptions options) {
+		if (instance != null) {
+			FillContext context = new FillContext(options);
+			refill(instance, context, options.getMaxDepth(), 0, options.getFieldsNameToIgnore());
+		}
+		return instance;
+	}
+
+	/**
+	 * Inner method of {@link #refill(Object, FillerOptions)}, each object of the graph is refilled once.
+	 *
+	 * @param target             The object to refill.
+	 * @param context            State of the current fill.
+	 * @param maxDepth           to what depth field should be instantiate (default=3).
+	 * @param currentDepth       current depth (so start =0).
+	 * @param fieldsNameToIgnore If some fields should not be processed you can exclude them by giving their names.
+	 */
+	@SuppressWarnings("unchecked")
+	private static void refill(final Object target, final FillContext context, final int maxDepth, final int currentDepth,
+			final String... fieldsNameToIgnore) {
+		if (!context.refilling(target)) {
+			return;
+		}
+		Class<?> type = target.getClass();
+		if (ProxyFactory.isProxyClass(type)) {
+			type = type.getSuperclass();
+			MethodHandler handler = ((ProxyObject) target).getHandler();
+			if (handler instanceof LazyHandler) {
+				((LazyHandler) handler).refilled(fieldsNameToIgnore);
+			}
+		}
+		List<FieldPlan> fields = FillPlan.of(type).getFields(fieldsNameToIgnore);
+		if (context.getOptions().isGeneratedFillers()) {
+			Generated generated = DirectFillers.of(type);
+			DirectFiller filler = generated.getFiller(fieldsNameToIgnore);
+			if (filler != null) {
+				filler.fill(target, context.getRandom(), context.getOptions().getStrings());
+				fields = FillPlan.without(generated.getRemaining(), fieldsNameToIgnore);
+				context.written(generated.getHandledCount());
+			}
+		}
+		if (ConstructorPlan.of(type).getParameterCount() > 0) {
+			fields = FillPlan.withoutFinal(fields);
+		}
+		context.enter(target);
+		try {
+			List<FieldPlan> toCreate = new ArrayList<>(fields.size());
+			for (FieldPlan field : fields) {
+				Object current = field.read(target);
+				if (current == null) {
+					toCreate.add(field);
+				} else if (field.getKind() == Kind.COLLECTION) {
+					Collection<Object> coll = (Collection<Object>) current;
+					try {
+						coll.clear();
+						addRandomElements(coll, field, context, maxDepth, currentDepth);
+					} catch (final UnsupportedOperationException e) {
+						// unmodifiable or fixed-size : replaced by a new collection.
+						field.write(target, null);
+						toCreate.add(field);
+					}
+				} else if (field.getKind() == Kind.MAP) {
+					Map<Object, Object> map = (Map<Object, Object>) current;
+					try {
+						map.clear();
+						putRandomEntries(map, field, context, maxDepth, currentDepth);
+					} catch (final UnsupportedOperationException e) {
+						field.write(target, null);
+						toCreate.add(field);
+					}
+				} else if (field.getType().isArray()) {
+					fillArray(current, context, maxDepth, currentDepth);
+				} else if (ValueGenerators.of(field.getType()).getKind() == ValueGenerators.Kind.BEAN) {
+					if (currentDepth < maxDepth) {
+						refill(current, context, maxDepth - 1, currentDepth);
+					}
+				} else {
+					toCreate.add(field);
+				}
+			}
+			fillFields(target, toCreate, context, maxDepth, currentDepth);
+		} catch (final IllegalAccessException e) {
+			LOGGER.warn("### {}", e.getMessage());
+		} finally {
+			context.leave();
+		}
+	}
+
+	/**
+	 * Generate filled objects on demand, without end. As for {@link #fillMany(Class, int, FillerOptions)} the n-th object
+	 * only depends on the seed of the options and on n.<br/>
+	 * Example of use :
+	 *
+	 * <pre>
+	 * try (FillGenerator&lt;Data&gt; generator = FillerUtil.generator(Data.class, FillerOptions.options().withSeed(42L)).prefetch(1000)) {
+	 * 	generator.stream().limit(1_000_000).forEach(pipeline::accept);
+	 * }
+	 * </pre>
+	 *
+	 * @param         <T> The class to fill.
+	 * @param inClass The class of the needed objects.
+	 * @param options Settings of each fill.
+	 * @return a new generator.
+	 */
+	public static <T> FillGenerator<T> generator(final Class<T> inClass, final FillerOptions options) {
+		return new FillGenerator<>(inClass, options, batchSeed(inClass, options));
+	}
+
+	/**
+	 * @param         <T> The class to fill.
+	 * @param inClass The class of the needed objects.
+	 * @param options Settings of each fill.
+	 * @return an infinite ordered stream of filled objects (see {@link #generator(Class, FillerOptions)}).
+	 */
+	public static <T> Stream<T> generate(final Class<T> inClass, final FillerOptions options) {
+		return generator(inClass, options).stream();
+	}
+
+	/**
+	 * @param inClass The class of the batch.
+	 * @param options Settings of the batch.
+	 * @return the seed of the options or a new seed (logged).
+	 */
+	private static long batchSeed(final Class<?> inClass, final FillerOptions options) {
+		if (options.getSeed() != null) {
+			return options.getSeed();
+		}
+		long seed = RandomSource.current().nextLong();
+		LOGGER.debug("Batch of {} with seed {}", inClass, seed);
+		return seed;
+	}
+
+	/**
+	 * @param         <T> The class to fill.
+	 * @param inClass The class of the needed object.
+	 * @param options Settings of the batch.
+	 * @param seed    Seed of the batch.
+	 * @param index   Index of the object in the batch.
+	 * @return the filled object.
+	 */
+	static <T> T fillElement(final Class<T> inClass, final FillerOptions options, final long seed, final long index) {
+		return fillRoot(inClass, new FillContext(options, RandomSource.forIndex(seed, index)));
+	}
+
+	/**
+	 * Fill a root object with the settings of the context, measured when {@link FillerMetrics} are enabled.
+	 *
+	 * @param         <T> The class to fill.
+	 * @param inClass The class of the needed object.
+	 * @param context State of the new fill.
+	 * @return the filled object.
+	 */
+	private static <T> T fillRoot(final Class<T> inClass, final FillContext context) {
+		FillerOptions options = context.getOptions();
+		if (!FillerMetrics.isEnabled()) {
+			return fill(inClass, context, options.isSetSuperFields(), options.getMaxDepth(), 0, options.getFieldsNameToIgnore());
+		}
+		long start = System.nanoTime();
+		long allocated = Allocations.currentThread();
+		try {
+			return fill(inClass, context, options.isSetSuperFields(), options.getMaxDepth(), 0, options.getFieldsNameToIgnore());
+		} finally {
+			FillerMetrics.record(inClass, context.getObjectCount(), context.getFieldCount(), System.nanoTime() - start,
+					Allocations.since(allocated));
+		}
 	}
 
 	/**
@@ -89,37 +411,117 @@ public final class FillerUtil {
 	 * 
 	 * @param                    <T> The class to fill.
 	 * @param inClass            The class of the needed object.
+	 * @param context            State of the current fill.
 	 * @param fieldsNameToIgnore If some fields should not be processed you can exclude them by giving their names.
 	 * @param setSuperFields     If true the methods of the super class are taken into account.
 	 * @param maxDepth           to what depth field should be instantiate (default=3).
 	 * @param currentDepth       current depth (so start =0).
 	 * @return An instance fully filled with random values.
 	 */
-	private static <T> T fill(final Class<T> inClass, final boolean setSuperFields, final int maxDepth, final int currentDepth,
-			final String... fieldsNameToIgnore) {
+	private static <T> T fill(final Class<T> inClass, final FillContext context, final boolean setSuperFields, final int maxDepth,
+			final int currentDepth, final String... fieldsNameToIgnore) {
 		if (inClass == null) {
 			return null;
 		}
+		if (context.getOptions().isLazyFill()) {
+			LazyProxy lazy = LazyProxies.of(inClass);
+			if (lazy.isSupported()) {
+				return fillLazily(inClass, lazy, context, maxDepth, currentDepth, fieldsNameToIgnore);
+			}
+		}
+		ConstructorPlan constructor = ConstructorPlan.of(inClass);
 		T object;
 		try {
-			object = ReflectionUtils.newInstance(inClass);
+			if (constructor.isSupported()) {
+				object = inClass.cast(constructor.newInstance(getRandomArguments(constructor, context, maxDepth, currentDepth)));
+			} else {
+				object = ReflectionUtils.newInstance(inClass);
+			}
 		} catch (final InstantiationException e) {
 			LOGGER.error("Given class {} can't be properly instantiated", inClass, e);
 			throw new RuntimeException(e);
 		}
-		List<String> ignoredField = Arrays.asList(ArrayUtils.nullToEmpty(fieldsNameToIgnore));
 
-		List<Field> fields = new ArrayList<>();
-		for (Field field : ReflectionUtils.collectFields(inClass, Modifier.STATIC + Modifier.PRIVATE, Modifier.STATIC + Modifier.FINAL)) {
-
-			if (!ignoredField.contains(field.getName()) && !field.getName().startsWith("this$")) { // ignore this$ field, the implicit
-				// reference created by javac.
-				fields.add(field);
+		FillPlan plan = FillPlan.of(inClass);
+		context.created(inClass, object, plan.getShallowSize());
+		List<FieldPlan> fields = plan.getFields(fieldsNameToIgnore);
+		if (context.getOptions().isGeneratedFillers()) {
+			Generated generated = DirectFillers.of(inClass);
+			DirectFiller filler = generated.getFiller(fieldsNameToIgnore);
+			if (filler != null) {
+				filler.fill(object, context.getRandom(), context.getOptions().getStrings());
+				fields = FillPlan.without(generated.getRemaining(), fieldsNameToIgnore);
+				context.written(generated.getHandledCount());
 			}
 		}
+		// the final fields set by the constructor are kept, whoever fills the others.
+		if (constructor.getParameterCount() > 0) {
+			fields = FillPlan.withoutFinal(fields);
+		}
+		context.enter(object);
+		try {
+			fillFields(object, fields, context, maxDepth, currentDepth);
+		} finally {
+			context.leave();
+		}
+
+		return object;
+	}
 
-		fillFields(object, fields, maxDepth, currentDepth);
+	/**
+	 * Generate the arguments of a constructor as the values of fields of these types. Collections and maps are given
+	 * empty.
+	 *
+	 * @param constructor  the constructor to call.
+	 * @param context      State of the current fill.
+	 * @param maxDepth     to what depth field should be instantiate (default=3).
+	 * @param currentDepth current depth (so start =0).
+	 * @return the arguments.
+	 * @throws InstantiationException if an empty collection can't be instantiated.
+	 */
+	private static Object[] getRandomArguments(final ConstructorPlan constructor, final FillContext context, final int maxDepth,
+			final int currentDepth) throws InstantiationException {
+		Class<?>[] parameterTypes = constructor.getParameterTypes();
+		Object[] arguments = new Object[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (Collection.class.isAssignableFrom(parameterTypes[i]) || Map.class.isAssignableFrom(parameterTypes[i])) {
+				arguments[i] = ReflectionUtils.newInstance(parameterTypes[i]);
+			} else {
+				arguments[i] = getRandomValue(parameterTypes[i], context, maxDepth, currentDepth);
+			}
+		}
+		return arguments;
+	}
 
+	/**
+	 * Create a proxy of the class whose nested objects, collections and maps are filled on the first call of their getter.
+	 *
+	 * @param                    <T> The class to fill.
+	 * @param inClass            The class of the needed object.
+	 * @param lazy               The proxy metadata of the class.
+	 * @param context            State of the current fill.
+	 * @param maxDepth           to what depth field should be instantiate (default=3).
+	 * @param currentDepth       current depth (so start =0).
+	 * @param fieldsNameToIgnore If some fields should not be processed you can exclude them by giving their names.
+	 * @return A proxy with its simple fields filled.
+	 */
+	private static <T> T fillLazily(final Class<T> inClass, final LazyProxy lazy, final FillContext context, final int maxDepth,
+			final int currentDepth, final String... fieldsNameToIgnore) {
+		LazyHandler handler = new LazyHandler(lazy, context, maxDepth, currentDepth, fieldsNameToIgnore);
+		T object;
+		try {
+			object = inClass.cast(lazy.newInstance(handler));
+		} catch (final InstantiationException e) {
+			LOGGER.error("Given class {} can't be properly instantiated", inClass, e);
+			throw new RuntimeException(e);
+		}
+		context.created(inClass, object, FillPlan.of(inClass).getShallowSize());
+		context.enter(object);
+		try {
+			fillFields(object, FillPlan.without(lazy.getEagerFields(), fieldsNameToIgnore), context, maxDepth, currentDepth);
+		} finally {
+			context.leave();
+		}
 		return object;
 	}
 
@@ -128,31 +530,34 @@ public final class FillerUtil {
 	 * 
 	 * @param target       the target object to fill with random value.
 	 * @param fields       list of field to handle
+	 * @param context      state of the current fill.
 	 * @param maxDepth     to what depth field should be instantiate (default=3).
 	 * @param currentDepth current depth (so start =0).
 	 * @param              <T> object Type.
 	 */
-	private static <T> void fillFields(final T target, final List<Field> fields, final int maxDepth, final int currentDepth) {
-		for (Field field : fields) {
-			Class<?> propertyType = field.getType();
+	private static <T> void fillFields(final T target, final List<FieldPlan> fields, final FillContext context, final int maxDepth,
+			final int currentDepth) {
+		for (FieldPlan field : fields) {
 			try {
-				if (Collection.class.isAssignableFrom(propertyType) || Map.class.isAssignableFrom(propertyType)) {
+				if (field.getKind() != Kind.VALUE) {
 					// Collection type : Map, Set, List
-					Object value = FieldUtils.readField(field, target, true);
+					Object value = field.read(target);
 					if (value == null || CollectionUtils.sizeIsEmpty(value)) { // skip non empty/null value where type can't be determined.
 
-						if (Map.class.isAssignableFrom(propertyType)) {
-							value = getRandomMap(field, maxDepth, currentDepth);
+						if (field.getKind() == Kind.MAP) {
+							value = getRandomMap(field, context, maxDepth, currentDepth);
 						} else {
-							value = getRandomCollection(field, maxDepth, currentDepth);
+							value = getRandomCollection(field, context, maxDepth, currentDepth);
 						}
-						FieldUtils.writeField(field, target, value, true);
+						field.write(target, value);
+						context.written(1);
 					}
 				} else {
 					// basic type.
-					Object value = getRandomValue(propertyType, maxDepth, currentDepth);
+					Object value = getRandomValue(field.getType(), context, maxDepth, currentDepth);
 					if (value != null) {
-						FieldUtils.writeField(field, target, value, true);
+						field.write(target, value);
+						context.written(1);
 					}
 				}
 			} catch (final IllegalAccessException | InstantiationException e) {
@@ -167,11 +572,23 @@ public final class FillerUtil {
 		return getRandomValue(inClass, 0, 0);
 	}
 
+	/**
+	 * Get a random value for a given class (see {@link #getRandomValue(Class, int, int)}) drawn from the given source.
+	 *
+	 * @param inClass The class to fill.
+	 * @param         <T> object Type.
+	 * @param random  source of random values.
+	 * @return A random value or null if the class provided is not handled by the method.
+	 */
+	public static <T> T getRandomValue(final Class<T> inClass, final RandomSource random) {
+		return getRandomValue(inClass, new FillContext(DEFAULT_OPTIONS, random), 0, 0);
+	}
+
 	/**
 	 * Get a random value for a given class. Supported class and range :
 	 * <ul>
 	 * <li><b>String</b> : random ASCII (between ASCII 32 and ASCII 126) with length 25.</li>
-	 * <li><b>java.util.Date</b> : use RandomUtils.nextLong to initialize the millis of the date.</li>
+	 * <li><b>java.util.Date</b> : use a random positive long to initialize the millis of the date.</li>
 	 * <li><b>boolean</b> and <b>Boolean</b> : true or false</li>
 	 * <li><b>int</b> and <b>Integer</b> : between 0 (inclusive) and 2<sup>31</sup>-1</li>
 	 * <li><b>double</b> and <b>Double</b> : between 0.0 (inclusive) and 999999.999999</li>
@@ -184,7 +601,10 @@ public final class FillerUtil {
 	 * <li><b>Number</b> : between 0.0 (inclusive) and 2<sup>7</sup>-1</li>
 	 * <li><b>char</b> and <b>Character</b> : between ASCII 32 and ASCII 126</li>
 	 * <li><b>Enum</b> : one of the Enum type.</li>
+	 * <li><b>arrays</b> : 10 elements generated as values of the component type, primitive arrays are written without
+	 * boxing.</li>
 	 * </ul>
+	 * Other types, or other values, can be generated by registering a {@link ValueGenerator} in {@link ValueGenerators}.
 	 * 
 	 * @param inClass      The class to fill.
 	 * @param              <T> object Type.
@@ -192,98 +612,576 @@ public final class FillerUtil {
 	 * @param maxDepth     to what depth field should be instantiate (default=3).
 	 * @return A random value or null if the class provided is not handled by the method.
 	 */
-	@SuppressWarnings("unchecked")
 	public static <T> T getRandomValue(final Class<T> inClass, final int maxDepth, final int currentDepth) {
+		return getRandomValue(inClass, new FillContext(DEFAULT_OPTIONS, RandomSource.current()), maxDepth, currentDepth);
+	}
+
+	/**
+	 * Get a random value for a given class (see {@link #getRandomValue(Class, int, int)}).
+	 *
+	 * @param inClass      The class to fill.
+	 * @param              <T> object Type.
+	 * @param context      state of the current fill.
+	 * @param currentDepth current depth.
+	 * @param maxDepth     to what depth field should be instantiate (default=3).
+	 * @return A random value or null if the class provided is not handled by the method.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T getRandomValue(final Class<T> inClass, final FillContext context, final int maxDepth, final int currentDepth) {
 		if (inClass == null) {
 			return null;
 		}
+		Dispatch dispatch = ValueGenerators.of(inClass);
 		Object value = null;
 
-		if (String.class.equals(inClass)) {
-			value = RandomStringUtils.randomAscii(25);
-		} else if (Date.class.equals(inClass)) {
-			value = new Date(RandomUtils.nextLong());
-		} else if (Boolean.class.equals(inClass) || boolean.class.equals(inClass)) {
-			value = RandomUtils.nextBoolean();
-		} else if (Double.class.equals(inClass) || double.class.equals(inClass)) {
-			value = RandomUtils.nextDouble() * RandomUtils.nextInt();
-		} else if (Integer.class.equals(inClass) || int.class.equals(inClass)) {
-			value = RandomUtils.nextInt();
-		} else if (Long.class.equals(inClass) || long.class.equals(inClass)) {
-			value = RandomUtils.nextLong();
-		} else if (Short.class.equals(inClass) || short.class.equals(inClass)) {
-			value = Short.valueOf((short) RandomUtils.nextInt(0, Short.MAX_VALUE));
-		} else if (Character.class.equals(inClass) || char.class.equals(inClass)) {
-			value = RandomStringUtils.randomAscii(1).charAt(0);
-		} else if (Float.class.equals(inClass) || float.class.equals(inClass)) {
-			value = Double.valueOf(RandomUtils.nextDouble() * RandomUtils.nextInt()).floatValue();
-		} else if (Byte.class.equals(inClass) || byte.class.equals(inClass)) {
-			value = RandomUtils.nextInt(0, Byte.MAX_VALUE);
-		} else if (BigDecimal.class.equals(inClass)) {
-			value = BigDecimal.valueOf(RandomUtils.nextDouble());
-		} else if (BigInteger.class.equals(inClass)) {
-			value = BigInteger.valueOf(RandomUtils.nextInt());
-		} else if (Number.class.equals(inClass)) {
-			value = RandomUtils.nextInt(0, Byte.MAX_VALUE);
-		} else if (Enum.class.isAssignableFrom(inClass)) {
-			T[] enumValues = inClass.getEnumConstants();
-			value = enumValues[RandomUtils.nextInt(0, enumValues.length)];
-		} else if (inClass.isAnnotation() || inClass.isInterface()) {
+		switch (dispatch.getKind()) {
+		case GENERATOR:
+			value = dispatch.getGenerator().generate(context.getRandom());
+			break;
+		case STRING:
+			value = context.getOptions().getStrings().next(context.getRandom());
+			context.created((String) value);
+			break;
+		case ARRAY:
+			value = getRandomArray(inClass.getComponentType(), context, maxDepth, currentDepth);
+			break;
+		case BEAN:
+			value = context.findShared(inClass);
+			if (value == null && currentDepth < maxDepth && context.canCreate()) {
+				value = fill(inClass, context, false, maxDepth - 1, currentDepth);
+			}
+			break;
+		default:
 			LOGGER.warn("No random value possible for : {}", inClass.toString());
+			break;
+		}
+		return (T) value;
+	}
+
+	/**
+	 * Create an array of {@link FillerOptions#withArraySize(int) arraySize} random values (see
+	 * {@link #getRandomValue(Class)}). The arrays of primitives are filled without boxing.
+	 *
+	 * @param componentType type of the elements.
+	 * @param context       state of the current fill.
+	 * @param maxDepth      to what depth field should be instantiate (default=3).
+	 * @param currentDepth  current depth (so start =0).
+	 * @return a new array or null when the budget of the fill is exhausted.
+	 */
+	private static Object getRandomArray(final Class<?> componentType, final FillContext context, final int maxDepth,
+			final int currentDepth) {
+		if (!context.canCreate()) {
+			return null;
+		}
+		int size = context.getOptions().getArraySize();
+		Object array = Array.newInstance(componentType, size);
+		context.createdArray(array, size);
+		fillArray(array, context, maxDepth, currentDepth);
+		return array;
+	}
+
+	/**
+	 * Write random values in all the elements of an array. The arrays of primitives are filled without boxing (unless a
+	 * {@link ValueGenerator} is registered for the primitive type), the objects already in an array of beans are refilled.
+	 *
+	 * @param array        the array to fill.
+	 * @param context      state of the current fill.
+	 * @param maxDepth     to what depth field should be instantiate (default=3).
+	 * @param currentDepth current depth (so start =0).
+	 */
+	private static void fillArray(final Object array, final FillContext context, final int maxDepth, final int currentDepth) {
+		Class<?> componentType = array.getClass().getComponentType();
+		RandomSource random = context.getRandom();
+		if (componentType.isPrimitive() && ValueGenerators.isRegistered(componentType)) {
+			for (int i = 0, length = Array.getLength(array); i < length; i++) {
+				Array.set(array, i, getRandomValue(componentType, context, maxDepth, currentDepth + 1));
+			}
+		} else if (array instanceof int[]) {
+			int[] values = (int[]) array;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = random.nextInt();
+			}
+		} else if (array instanceof long[]) {
+			long[] values = (long[]) array;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = random.nextNonNegativeLong();
+			}
+		} else if (array instanceof double[]) {
+			double[] values = (double[]) array;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = random.nextDouble() * random.nextInt();
+			}
+		} else if (array instanceof float[]) {
+			float[] values = (float[]) array;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = (float) (random.nextDouble() * random.nextInt());
+			}
+		} else if (array instanceof short[]) {
+			short[] values = (short[]) array;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = (short) random.nextInt(0, Short.MAX_VALUE);
+			}
+		} else if (array instanceof byte[]) {
+			byte[] values = (byte[]) array;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = (byte) random.nextInt(0, Byte.MAX_VALUE);
+			}
+		} else if (array instanceof char[]) {
+			char[] values = (char[]) array;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = random.nextAsciiChar();
+			}
+		} else if (array instanceof boolean[]) {
+			boolean[] values = (boolean[]) array;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = random.nextBoolean();
+			}
 		} else {
-			if (currentDepth < maxDepth) {
-				value = fill(inClass, false, maxDepth - 1, currentDepth);
+			Object[] values = (Object[]) array;
+			boolean bean = ValueGenerators.of(componentType).getKind() == ValueGenerators.Kind.BEAN;
+			for (int i = 0; i < values.length && context.canCreate(); i++) {
+				if (bean && values[i] != null) {
+					refill(values[i], context, maxDepth - 1, currentDepth);
+				} else {
+					values[i] = getRandomValue(componentType, context, maxDepth, currentDepth + 1);
+				}
 			}
+		}
+	}
 
-			// empty value
+	/**
+	 * Fill an array with random ints (the whole range of int).
+	 *
+	 * @param target the array to fill.
+	 * @return the target array.
+	 */
+	public static int[] fillInts(final int[] target) {
+		RandomSource random = RandomSource.current();
+		for (int i = 0; i < target.length; i++) {
+			target[i] = (int) random.nextLong();
 		}
-		return (T) value;
+		return target;
+	}
+
+	/**
+	 * Fill an array with random longs (the whole range of long).
+	 *
+	 * @param target the array to fill.
+	 * @return the target array.
+	 */
+	public static long[] fillLongs(final long[] target) {
+		RandomSource random = RandomSource.current();
+		for (int i = 0; i < target.length; i++) {
+			target[i] = random.nextLong();
+		}
+		return target;
+	}
+
+	/**
+	 * Fill an array with random doubles between 0.0 (inclusive) and 1.0 (exclusive).
+	 *
+	 * @param target the array to fill.
+	 * @return the target array.
+	 */
+	public static double[] fillDoubles(final double[] target) {
+		RandomSource random = RandomSource.current();
+		for (int i = 0; i < target.length; i++) {
+			target[i] = random.nextDouble();
+		}
+		return target;
+	}
+
+	/**
+	 * Fill an array with random bytes (the whole range of byte).
+	 *
+	 * @param target the array to fill.
+	 * @return the target array.
+	 */
+	public static byte[] fillBytes(final byte[] target) {
+		RandomSource.current().nextBytes(target);
+		return target;
+	}
+
+	/**
+	 * Fill the remaining bytes of a buffer (heap or direct) with random bytes, 8 bytes at a time. As for a relative put,
+	 * the position of the buffer is moved to its limit.
+	 *
+	 * @param target the buffer to fill.
+	 * @return the target buffer.
+	 */
+	public static ByteBuffer fillBytes(final ByteBuffer target) {
+		RandomSource random = RandomSource.current();
+		while (target.remaining() >= Long.BYTES) {
+			target.putLong(random.nextLong());
+		}
+		while (target.hasRemaining()) {
+			target.put((byte) random.nextInt(1 << Byte.SIZE));
+		}
+		return target;
+	}
+
+	/**
+	 * @param size length of the array.
+	 * @return a new array of random ints (see {@link #fillInts(int[])}).
+	 */
+	public static int[] randomInts(final int size) {
+		return fillInts(new int[size]);
+	}
+
+	/**
+	 * @param size length of the array.
+	 * @return a new array of random bytes (see {@link #fillBytes(byte[])}).
+	 */
+	public static byte[] randomBytes(final int size) {
+		return fillBytes(new byte[size]);
+	}
+
+	/**
+	 * @param capacity capacity of the buffer.
+	 * @param direct   true to allocate the buffer off-heap ({@link ByteBuffer#allocateDirect(int)}).
+	 * @return a new buffer full of random bytes, ready to be read (position 0, limit capacity).
+	 */
+	public static ByteBuffer randomBuffer(final int capacity, final boolean direct) {
+		ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+		fillBytes(buffer);
+		buffer.flip();
+		return buffer;
 	}
 
 	/**
 	 * Using the field type, create and fill a collection with random data (see {@link #getRandomValue(Class)})
 	 * 
 	 * @param field        the collection type field.
+	 * @param context      state of the current fill.
 	 * @param maxDepth     to what depth field should be instantiate (default=3).
 	 * @param currentDepth current depth (so start =0).
 	 * @return a new collection
 	 * @throws InstantiationException when the field can't be instantiate.
 	 */
 	@SuppressWarnings("unchecked")
-	private static Collection<?> getRandomCollection(final Field field, final int maxDepth, final int currentDepth)
-			throws InstantiationException {
-		if (!Collection.class.isAssignableFrom(field.getType())) {
+	private static Collection<?> getRandomCollection(final FieldPlan field, final FillContext context, final int maxDepth,
+			final int currentDepth) throws InstantiationException {
+		if (field.getKind() != Kind.COLLECTION) {
 			return null;
 		}
 
+		int size = context.getOptions().getCollectionSize();
 		Collection<Object> coll = (Collection<Object>) ReflectionUtils.newInstance(field.getType());
-		Class<?> genericType = GenericUtils.getGenericCollectionType(field);
+		context.createdCollection(coll, size);
+		addRandomElements(coll, field, context, maxDepth, currentDepth);
+		return coll;
+	}
+
+	/**
+	 * Add {@link FillerOptions#withCollectionSize(int) collectionSize} random elements to a collection.
+	 *
+	 * @param coll         the collection to fill.
+	 * @param field        the collection type field.
+	 * @param context      state of the current fill.
+	 * @param maxDepth     to what depth field should be instantiate (default=3).
+	 * @param currentDepth current depth (so start =0).
+	 */
+	private static void addRandomElements(final Collection<Object> coll, final FieldPlan field, final FillContext context,
+			final int maxDepth, final int currentDepth) {
+		int size = context.getOptions().getCollectionSize();
+		Class<?> genericType = field.getElementType();
 		if (genericType != null && currentDepth < maxDepth) {
-			for (int i = 0; i < 10; i++) {
-				Object instance = fill(genericType, true, Math.max(maxDepth - (currentDepth + 1), 1), currentDepth + 1);
-				coll.add(instance);
+			boolean bean = ValueGenerators.of(genericType).getKind() == ValueGenerators.Kind.BEAN;
+			int threshold = context.getOptions().getParallelThreshold();
+			if (bean && threshold > 0 && size >= threshold) {
+				Object[] elements = new Object[size];
+				ForkJoinPool.commonPool().invoke(new ElementsTask(genericType, context, context.getRandom().nextLong(), elements, 0, size,
+						maxDepth, currentDepth));
+				for (Object element : elements) {
+					if (element != null) {
+						coll.add(element);
+					}
+				}
+				return;
+			}
+			for (int i = 0; i < size && context.canCreate(); i++) {
+				coll.add(newElement(genericType, bean, context, maxDepth, currentDepth));
 			}
 		}
-		return coll;
 	}
 
 	/**
-	 * Create and initialize a new Map (HashMap)
+	 * @param genericType  type of the elements.
+	 * @param bean         true if the elements are beans.
+	 * @param context      state of the current fill.
+	 * @param maxDepth     to what depth field should be instantiate (default=3).
+	 * @param currentDepth current depth of the collection.
+	 * @return a new element of a collection.
+	 */
+	private static Object newElement(final Class<?> genericType, final boolean bean, final FillContext context, final int maxDepth,
+			final int currentDepth) {
+		if (bean) {
+			return fill(genericType, context, true, Math.max(maxDepth - (currentDepth + 1), 1), currentDepth + 1);
+		}
+		return getRandomValue(genericType, context, maxDepth, currentDepth + 1);
+	}
+
+	/**
+	 * Create and initialize a new Map (HashMap), with {@link FillerOptions#withMapSize(int) mapSize} random entries when
+	 * the key and value types can be resolved.
 	 * 
 	 * @param field        the map field
+	 * @param context      state of the current fill.
 	 * @param maxDepth     to what depth field should be instantiate (default=0).
 	 * @param currentDepth current depth (so start =0).
 	 * @return a new Map
 	 * @throws InstantiationException when the field can't be instantiate.
 	 */
-	private static Map<?, ?> getRandomMap(final Field field, final int maxDepth, final int currentDepth) throws InstantiationException {
-		if (!Map.class.isAssignableFrom(field.getType())) {
+	@SuppressWarnings("unchecked")
+	private static Map<?, ?> getRandomMap(final FieldPlan field, final FillContext context, final int maxDepth, final int currentDepth)
+			throws InstantiationException {
+		if (field.getKind() != Kind.MAP) {
 			return null;
 		}
 
-		Map<?, ?> map = (Map<?, ?>) ReflectionUtils.newInstance(field.getType());
-		// TODO (hard): find key,value type and instantiate them.
+		int size = context.getOptions().getMapSize();
+		Map<Object, Object> map;
+		if (context.getOptions().isPresizedMaps() && (Map.class.equals(field.getType()) || HashMap.class.equals(field.getType()))) {
+			map = new HashMap<>(capacity(size));
+		} else if (context.getOptions().isPresizedMaps() && LinkedHashMap.class.equals(field.getType())) {
+			map = new LinkedHashMap<>(capacity(size));
+		} else {
+			map = (Map<Object, Object>) ReflectionUtils.newInstance(field.getType());
+		}
+		context.createdCollection(map, size);
+		putRandomEntries(map, field, context, maxDepth, currentDepth);
 		return map;
 	}
 
+	/**
+	 * @param size number of entries.
+	 * @return initial capacity of a hash map holding the entries without rehashing (default load factor).
+	 */
+	private static int capacity(final int size) {
+		return (int) (size / 0.75f) + 1;
+	}
+
+	/**
+	 * Put random entries in a map.
+	 *
+	 * @param map          the map to fill.
+	 * @param field        the map field
+	 * @param context      state of the current fill.
+	 * @param maxDepth     to what depth field should be instantiate (default=0).
+	 * @param currentDepth current depth (so start =0).
+	 */
+	private static void putRandomEntries(final Map<Object, Object> map, final FieldPlan field, final FillContext context,
+			final int maxDepth, final int currentDepth) {
+		Class<?> keyType = field.getKeyType();
+		Class<?> valueType = field.getElementType();
+		if (keyType == null || valueType == null || currentDepth >= maxDepth) {
+			return;
+		}
+		boolean beanKey = ValueGenerators.of(keyType).getKind() == ValueGenerators.Kind.BEAN;
+		boolean beanValue = ValueGenerators.of(valueType).getKind() == ValueGenerators.Kind.BEAN;
+		int size = context.getOptions().getMapSize();
+		for (int i = 0; i < size && context.canCreate(); i++) {
+			Object key = newElement(keyType, beanKey, context, maxDepth, currentDepth);
+			if (key != null) {
+				map.put(key, newElement(valueType, beanValue, context, maxDepth, currentDepth));
+			}
+		}
+	}
+
+	/**
+	 * Fill the lazy fields of a proxy on the first call of their getter.
+	 */
+	private static final class LazyHandler implements MethodHandler {
+
+		private final LazyProxy lazy;
+
+		private final FillContext context;
+
+		private final int maxDepth;
+
+		private final int currentDepth;
+
+		private final boolean[] done;
+
+		/**
+		 * @param lazy               proxy metadata.
+		 * @param context            state of the fill, shared with the lazy fields.
+		 * @param maxDepth           to what depth field should be instantiate.
+		 * @param currentDepth       depth of the proxy.
+		 * @param fieldsNameToIgnore fields which must never be filled.
+		 */
+		LazyHandler(final LazyProxy lazy, final FillContext context, final int maxDepth, final int currentDepth,
+				final String... fieldsNameToIgnore) {
+			this.lazy = lazy;
+			this.context = context;
+			this.maxDepth = maxDepth;
+			this.currentDepth = currentDepth;
+			this.done = new boolean[lazy.getLazyFields().size()];
+			List<String> ignored = Arrays.asList(fieldsNameToIgnore);
+			for (int i = 0; i < done.length; i++) {
+				done[i] = ignored.contains(lazy.getLazyFields().get(i).getName());
+			}
+		}
+
+		@Override
+		public Object invoke(final Object self, final Method thisMethod, final Method proceed, final Object[] args) throws Throwable {
+			int index = lazy.getterIndex(thisMethod);
+			if (index >= 0) {
+				// the context (random source, path) is not thread safe.
+				synchronized (context) {
+					if (!done[index]) {
+						done[index] = true;
+						context.enter(self);
+						try {
+							fillFields(self, Collections.singletonList(lazy.getLazyFields().get(index)), context, maxDepth, currentDepth);
+						} finally {
+							context.leave();
+						}
+					}
+				}
+			} else {
+				index = lazy.setterIndex(thisMethod);
+				if (index >= 0) {
+					synchronized (context) {
+						done[index] = true;
+					}
+				}
+			}
+			try {
+				return proceed.invoke(self, args);
+			} catch (final InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		/**
+		 * Disable the generation of the lazy fields refilled by {@link FillerUtil#refill(Object, FillerOptions)}.
+		 *
+		 * @param fieldsNameToIgnore fields not refilled.
+		 */
+		void refilled(final String... fieldsNameToIgnore) {
+			List<String> ignored = Arrays.asList(fieldsNameToIgnore);
+			synchronized (context) {
+				for (int i = 0; i < done.length; i++) {
+					done[i] |= !ignored.contains(lazy.getLazyFields().get(i).getName());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fill a range of a batch, splitting the range between the threads of the pool.
+	 */
+	private static final class FillManyTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final int THRESHOLD = 64;
+
+		private final Class<?> inClass;
+
+		private final FillerOptions options;
+
+		private final long seed;
+
+		private final Object[] result;
+
+		private final int from;
+
+		private final int to;
+
+		/**
+		 * @param inClass class to fill.
+		 * @param options settings of the batch.
+		 * @param seed    seed of the batch.
+		 * @param result  array receiving the objects.
+		 * @param from    first index (inclusive).
+		 * @param to      last index (exclusive).
+		 */
+		FillManyTask(final Class<?> inClass, final FillerOptions options, final long seed, final Object[] result, final int from,
+				final int to) {
+			this.inClass = inClass;
+			this.options = options;
+			this.seed = seed;
+			this.result = result;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				for (int i = from; i < to; i++) {
+					result[i] = fillElement(inClass, options, seed, i);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new FillManyTask(inClass, options, seed, result, from, middle),
+						new FillManyTask(inClass, options, seed, result, middle, to));
+			}
+		}
+	}
+
+	/**
+	 * Fill the elements of a large collection of beans in parallel (see
+	 * {@link FillerOptions#withParallelThreshold(int)}). Each element has its own context, seeded from the base seed and
+	 * its index, so the elements don't depend on the splitting.
+	 */
+	private static final class ElementsTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final int THRESHOLD = 4;
+
+		private final Class<?> genericType;
+
+		private final FillContext context;
+
+		private final long seed;
+
+		private final Object[] result;
+
+		private final int from;
+
+		private final int to;
+
+		private final int maxDepth;
+
+		private final int currentDepth;
+
+		/**
+		 * @param genericType  type of the elements.
+		 * @param context      context of the collection.
+		 * @param seed         base seed of the elements.
+		 * @param result       array receiving the elements.
+		 * @param from         first index (inclusive).
+		 * @param to           last index (exclusive).
+		 * @param maxDepth     to what depth field should be instantiate.
+		 * @param currentDepth current depth of the collection.
+		 */
+		ElementsTask(final Class<?> genericType, final FillContext context, final long seed, final Object[] result, final int from,
+				final int to, final int maxDepth, final int currentDepth) {
+			this.genericType = genericType;
+			this.context = context;
+			this.seed = seed;
+			this.result = result;
+			this.from = from;
+			this.to = to;
+			this.maxDepth = maxDepth;
+			this.currentDepth = currentDepth;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				for (int i = from; i < to && context.canCreate(); i++) {
+					result[i] = newElement(genericType, true, context.fork(RandomSource.forIndex(seed, i)), maxDepth, currentDepth);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ElementsTask(genericType, context, seed, result, from, middle, maxDepth, currentDepth),
+						new ElementsTask(genericType, context, seed, result, middle, to, maxDepth, currentDepth));
+			}
+		}
+	}
 }
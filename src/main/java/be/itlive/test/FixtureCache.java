@@ -0,0 +1,527 @@
+package be.itlive.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import be.itlive.common.utils.ReflectionUtils;
+import be.itlive.test.FillPlan.FieldPlan;
+
+/**
+ * Binary snapshots of the graphs built by {@link FillerUtil#fillCached(Class, FillerOptions)}, stored under
+ * <code>target/filler-cache</code> (or the directory given by the system property {@value #DIRECTORY_PROPERTY}).<br/>
+ * A file is named after the class, the seed and the options of the fill. It holds the shape (fields and their types) of
+ * every class of the graph : when one of them changes, the snapshot is ignored and replaced. Files are written to a
+ * temporary file then moved, so concurrent test forks never read a partial snapshot, and read through a memory mapping.
+ * <br/>
+ * Any problem (unknown class, I/O error) is logged and leads to a new fill. The beans, collections and maps are
+ * rebuilt from their class : a graph holding one which can't be (bean without no-arg constructor, unmodifiable,
+ * fixed-size or immutable implementations such as <code>Arrays.asList</code>, <code>Collections.unmodifiableList</code>
+ * or the Guava <code>Immutable*</code> classes) is not saved.
+ */
+final class FixtureCache {
+
+	/**
+	 * System property overriding the directory of the snapshots.
+	 */
+	static final String DIRECTORY_PROPERTY = "be.itlive.test.fixtureCache";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FixtureCache.class);
+
+	private static final int MAGIC = 0x46494C4C;
+
+	private static final int VERSION = 1;
+
+	private static final byte NULL = 0;
+
+	private static final byte REFERENCE = 1;
+
+	private static final byte STRING = 2;
+
+	private static final byte BOOLEAN = 3;
+
+	private static final byte BYTE = 4;
+
+	private static final byte SHORT = 5;
+
+	private static final byte CHAR = 6;
+
+	private static final byte INT = 7;
+
+	private static final byte LONG = 8;
+
+	private static final byte FLOAT = 9;
+
+	private static final byte DOUBLE = 10;
+
+	private static final byte DATE = 11;
+
+	private static final byte BIG_INTEGER = 12;
+
+	private static final byte BIG_DECIMAL = 13;
+
+	private static final byte ENUM = 14;
+
+	private static final byte ARRAY = 15;
+
+	private static final byte COLLECTION = 16;
+
+	private static final byte MAP = 17;
+
+	private static final byte BEAN = 18;
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private FixtureCache() {
+		super();
+	}
+
+	/**
+	 * @param inClass the class of the fixture.
+	 * @param options the settings of the fill, with a seed.
+	 * @return the file of the snapshot.
+	 */
+	static Path file(final Class<?> inClass, final FillerOptions options) {
+		String directory = System.getProperty(DIRECTORY_PROPERTY, "target/filler-cache");
+		String key = inClass.getName() + '#' + options.getSeed() + '#' + options.fingerprint();
+		return Paths.get(directory, inClass.getSimpleName() + '-' + sha256(key).substring(0, 32) + ".bin");
+	}
+
+	/**
+	 * @param         <T> The class of the fixture.
+	 * @param inClass the class of the fixture.
+	 * @param file    the file of the snapshot.
+	 * @return the fixture or null if there is no valid snapshot.
+	 */
+	static <T> T load(final Class<T> inClass, final Path file) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return inClass.cast(new Decoder(buffer).decode());
+		} catch (final NoSuchFileException e) {
+			return null;
+		} catch (final IOException | ReflectiveOperationException | RuntimeException e) {
+			LOGGER.debug("Snapshot {} ignored : {}", file, e.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * @param fixture the graph to save.
+	 * @param file    the file of the snapshot.
+	 */
+	static void store(final Object fixture, final Path file) {
+		try {
+			byte[] bytes = new Encoder().encode(fixture);
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+			try {
+				Files.write(temporary, bytes);
+				try {
+					Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				} catch (final AtomicMoveNotSupportedException e) {
+					Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				Files.deleteIfExists(temporary);
+			}
+		} catch (final IOException | ReflectiveOperationException | RuntimeException e) {
+			LOGGER.debug("No snapshot of {} : {}", fixture.getClass(), e.toString());
+		}
+	}
+
+	/**
+	 * @param type a class of the graph.
+	 * @return hash of the fields of the class.
+	 */
+	private static String shape(final Class<?> type) {
+		if (type.isPrimitive() || type.getName().startsWith("java.")) {
+			return type.getName();
+		}
+		StringBuilder shape = new StringBuilder(type.getName());
+		for (FieldPlan field : FillPlan.of(type).getFields()) {
+			shape.append(';').append(field.getName()).append(':').append(field.getField().getGenericType().getTypeName());
+		}
+		if (type.isEnum()) {
+			for (Object constant : type.getEnumConstants()) {
+				shape.append(';').append(constant);
+			}
+		}
+		return sha256(shape.toString());
+	}
+
+	/**
+	 * @param type class of a collection or a map of the graph.
+	 * @return the class, if the decoder can create an empty instance and fill it.
+	 * @throws IllegalArgumentException if the class isn't public with a public no-arg constructor, like the unmodifiable,
+	 *                                  fixed-size and immutable implementations.
+	 */
+	private static Class<?> rebuildable(final Class<?> type) {
+		try {
+			if (Modifier.isPublic(type.getModifiers()) && !Modifier.isAbstract(type.getModifiers())) {
+				type.getConstructor();
+				return type;
+			}
+		} catch (final NoSuchMethodException e) {
+			// rejected below.
+		}
+		throw new IllegalArgumentException("Can't rebuild " + type);
+	}
+
+	/**
+	 * @param value a string.
+	 * @return the hexadecimal SHA-256 of the string.
+	 */
+	private static String sha256(final String value) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				hex.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Write a graph : header, table of the classes with their shape, then the values (each object once, later
+	 * occurrences are references).
+	 */
+	private static final class Encoder {
+
+		private final Map<Object, Integer> objects = new IdentityHashMap<>();
+
+		private final Map<Class<?>, Integer> classes = new HashMap<>();
+
+		private final List<Class<?>> classTable = new ArrayList<>();
+
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		private final DataOutputStream out = new DataOutputStream(body);
+
+		/**
+		 * @param fixture the graph.
+		 * @return the snapshot.
+		 * @throws IOException                  never (in memory).
+		 * @throws ReflectiveOperationException if a field can't be read.
+		 */
+		byte[] encode(final Object fixture) throws IOException, ReflectiveOperationException {
+			write(fixture);
+			ByteArrayOutputStream file = new ByteArrayOutputStream(body.size() + 64 * classTable.size());
+			DataOutputStream header = new DataOutputStream(file);
+			header.writeInt(MAGIC);
+			header.writeInt(VERSION);
+			header.writeInt(classTable.size());
+			for (Class<?> type : classTable) {
+				header.writeUTF(type.getName());
+				header.writeUTF(shape(type));
+			}
+			body.writeTo(file);
+			return file.toByteArray();
+		}
+
+		/**
+		 * @param type a class of the graph.
+		 * @throws IOException never.
+		 */
+		private void writeClass(final Class<?> type) throws IOException {
+			Integer index = classes.get(type);
+			if (index == null) {
+				index = classTable.size();
+				classes.put(type, index);
+				classTable.add(type);
+			}
+			out.writeInt(index);
+		}
+
+		/**
+		 * @param value the string.
+		 * @throws IOException never.
+		 */
+		private void writeString(final String value) throws IOException {
+			out.writeInt(value.length());
+			out.writeChars(value);
+		}
+
+		/**
+		 * @param value a value of the graph.
+		 * @throws IOException                  never.
+		 * @throws ReflectiveOperationException if a field can't be read.
+		 */
+		private void write(final Object value) throws IOException, ReflectiveOperationException {
+			if (value == null) {
+				out.writeByte(NULL);
+				return;
+			}
+			Integer reference = objects.get(value);
+			if (reference != null) {
+				out.writeByte(REFERENCE);
+				out.writeInt(reference);
+				return;
+			}
+			objects.put(value, objects.size());
+			if (value instanceof String) {
+				out.writeByte(STRING);
+				writeString((String) value);
+			} else if (value instanceof Boolean) {
+				out.writeByte(BOOLEAN);
+				out.writeBoolean((Boolean) value);
+			} else if (value instanceof Byte) {
+				out.writeByte(BYTE);
+				out.writeByte((Byte) value);
+			} else if (value instanceof Short) {
+				out.writeByte(SHORT);
+				out.writeShort((Short) value);
+			} else if (value instanceof Character) {
+				out.writeByte(CHAR);
+				out.writeChar((Character) value);
+			} else if (value instanceof Integer) {
+				out.writeByte(INT);
+				out.writeInt((Integer) value);
+			} else if (value instanceof Long) {
+				out.writeByte(LONG);
+				out.writeLong((Long) value);
+			} else if (value instanceof Float) {
+				out.writeByte(FLOAT);
+				out.writeFloat((Float) value);
+			} else if (value instanceof Double) {
+				out.writeByte(DOUBLE);
+				out.writeDouble((Double) value);
+			} else if (value.getClass() == Date.class) {
+				out.writeByte(DATE);
+				out.writeLong(((Date) value).getTime());
+			} else if (value instanceof BigInteger) {
+				out.writeByte(BIG_INTEGER);
+				writeString(value.toString());
+			} else if (value instanceof BigDecimal) {
+				out.writeByte(BIG_DECIMAL);
+				writeString(value.toString());
+			} else if (value instanceof Enum) {
+				out.writeByte(ENUM);
+				writeClass(((Enum<?>) value).getDeclaringClass());
+				out.writeInt(((Enum<?>) value).ordinal());
+			} else if (value.getClass().isArray()) {
+				out.writeByte(ARRAY);
+				writeClass(value.getClass().getComponentType());
+				int length = Array.getLength(value);
+				out.writeInt(length);
+				for (int i = 0; i < length; i++) {
+					write(Array.get(value, i));
+				}
+			} else if (value instanceof Collection) {
+				out.writeByte(COLLECTION);
+				writeClass(rebuildable(value.getClass()));
+				out.writeInt(((Collection<?>) value).size());
+				for (Object element : (Collection<?>) value) {
+					write(element);
+				}
+			} else if (value instanceof Map) {
+				out.writeByte(MAP);
+				writeClass(rebuildable(value.getClass()));
+				out.writeInt(((Map<?, ?>) value).size());
+				for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+					write(entry.getKey());
+					write(entry.getValue());
+				}
+			} else if (value.getClass().getName().startsWith("java.")) {
+				throw new IllegalArgumentException("Unsupported type " + value.getClass());
+			} else {
+				if (ConstructorPlan.of(value.getClass()).getParameterCount() > 0) {
+					throw new IllegalArgumentException("Can't rebuild " + value.getClass() + " : no no-arg constructor");
+				}
+				out.writeByte(BEAN);
+				writeClass(value.getClass());
+				for (FieldPlan field : FillPlan.of(value.getClass()).getFields()) {
+					write(field.read(value));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read a graph written by {@link Encoder}.
+	 */
+	private static final class Decoder {
+
+		private final ByteBuffer in;
+
+		private final List<Object> objects = new ArrayList<>();
+
+		private Class<?>[] classes;
+
+		/**
+		 * @param in the mapped snapshot.
+		 */
+		Decoder(final ByteBuffer in) {
+			this.in = in;
+		}
+
+		/**
+		 * @return the graph.
+		 * @throws IOException                  if the header or a shape doesn't match.
+		 * @throws ReflectiveOperationException if a class or an instance can't be created.
+		 */
+		Object decode() throws IOException, ReflectiveOperationException {
+			if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+				throw new IOException("Not a snapshot of this version");
+			}
+			classes = new Class<?>[in.getInt()];
+			ClassLoader loader = Thread.currentThread().getContextClassLoader();
+			if (loader == null) {
+				loader = FixtureCache.class.getClassLoader();
+			}
+			for (int i = 0; i < classes.length; i++) {
+				String name = readUTF();
+				classes[i] = primitiveOrClass(name, loader);
+				if (!shape(classes[i]).equals(readUTF())) {
+					throw new IOException("The shape of " + name + " has changed");
+				}
+			}
+			return read();
+		}
+
+		/**
+		 * @param name   name of a class.
+		 * @param loader loader of the test.
+		 * @return the class.
+		 * @throws ClassNotFoundException if the class doesn't exist anymore.
+		 */
+		private static Class<?> primitiveOrClass(final String name, final ClassLoader loader) throws ClassNotFoundException {
+			for (Class<?> primitive : new Class<?>[] { boolean.class, byte.class, short.class, char.class, int.class, long.class,
+					float.class, double.class }) {
+				if (primitive.getName().equals(name)) {
+					return primitive;
+				}
+			}
+			return Class.forName(name, false, loader);
+		}
+
+		/**
+		 * @return a string written by {@link DataOutputStream#writeUTF(String)}.
+		 */
+		private String readUTF() {
+			byte[] bytes = new byte[in.getShort() & 0xFFFF];
+			in.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * @return a string written by {@link Encoder#writeString(String)}.
+		 */
+		private String readString() {
+			char[] chars = new char[in.getInt()];
+			in.asCharBuffer().get(chars);
+			in.position(in.position() + 2 * chars.length);
+			return new String(chars);
+		}
+
+		/**
+		 * @param value a new value.
+		 * @return the value.
+		 */
+		private <V> V register(final V value) {
+			objects.add(value);
+			return value;
+		}
+
+		/**
+		 * @return the next value.
+		 * @throws ReflectiveOperationException if an instance can't be created.
+		 */
+		@SuppressWarnings("unchecked")
+		private Object read() throws ReflectiveOperationException {
+			byte tag = in.get();
+			switch (tag) {
+			case NULL:
+				return null;
+			case REFERENCE:
+				return objects.get(in.getInt());
+			case STRING:
+				return register(readString());
+			case BOOLEAN:
+				return register(in.get() != 0);
+			case BYTE:
+				return register(in.get());
+			case SHORT:
+				return register(in.getShort());
+			case CHAR:
+				return register(in.getChar());
+			case INT:
+				return register(in.getInt());
+			case LONG:
+				return register(in.getLong());
+			case FLOAT:
+				return register(in.getFloat());
+			case DOUBLE:
+				return register(in.getDouble());
+			case DATE:
+				return register(new Date(in.getLong()));
+			case BIG_INTEGER:
+				return register(new BigInteger(readString()));
+			case BIG_DECIMAL:
+				return register(new BigDecimal(readString()));
+			case ENUM:
+				return register(classes[in.getInt()].getEnumConstants()[in.getInt()]);
+			case ARRAY:
+				Object array = register(Array.newInstance(classes[in.getInt()], in.getInt()));
+				for (int i = 0, length = Array.getLength(array); i < length; i++) {
+					Array.set(array, i, read());
+				}
+				return array;
+			case COLLECTION:
+				Collection<Object> collection = (Collection<Object>) register(ReflectionUtils.newInstance(classes[in.getInt()]));
+				for (int i = in.getInt(); i > 0; i--) {
+					collection.add(read());
+				}
+				return collection;
+			case MAP:
+				Map<Object, Object> map = (Map<Object, Object>) register(ReflectionUtils.newInstance(classes[in.getInt()]));
+				for (int i = in.getInt(); i > 0; i--) {
+					map.put(read(), read());
+				}
+				return map;
+			case BEAN:
+				Class<?> type = classes[in.getInt()];
+				ConstructorPlan constructor = ConstructorPlan.of(type);
+				if (constructor.getParameterCount() > 0) {
+					throw new InstantiationException(type + " has no no-arg constructor");
+				}
+				Object bean = register(constructor.isSupported() ? constructor.newInstance() : ReflectionUtils.newInstance(type));
+				for (FieldPlan field : FillPlan.of(type).getFields()) {
+					field.write(bean, read());
+				}
+				return bean;
+			default:
+				throw new IllegalStateException("Unknown tag " + tag);
+			}
+		}
+	}
+}
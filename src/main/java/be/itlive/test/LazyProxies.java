@@ -0,0 +1,272 @@
+package be.itlive.test;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import be.itlive.test.FillPlan.FieldPlan;
+import be.itlive.test.FillPlan.Kind;
+import javassist.util.proxy.MethodFilter;
+import javassist.util.proxy.MethodHandler;
+import javassist.util.proxy.ProxyFactory;
+import javassist.util.proxy.ProxyObject;
+
+/**
+ * Javassist proxy classes used by the lazy fill of {@link FillerUtil} (see {@link FillerOptions#withLazyFill(boolean)}).
+ * <br/>
+ * For a given class, the nested objects, collections and maps are "lazy" fields : they are only generated when their
+ * getter is called for the first time. Calling the setter first disables the generation. The other fields are filled
+ * when the instance is created.
+ */
+final class LazyProxies {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LazyProxies.class);
+
+	private static final ClassValue<LazyProxy> PROXIES = new ClassValue<LazyProxy>() {
+		@Override
+		protected LazyProxy computeValue(final Class<?> type) {
+			return create(type);
+		}
+	};
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private LazyProxies() {
+		super();
+	}
+
+	/**
+	 * @param type the class to fill.
+	 * @return the cached proxy metadata of the class.
+	 */
+	static LazyProxy of(final Class<?> type) {
+		return PROXIES.get(type);
+	}
+
+	/**
+	 * @param type the class to fill.
+	 * @return proxy metadata, without proxy class if the class can't be proxied.
+	 */
+	private static LazyProxy create(final Class<?> type) {
+		List<FieldPlan> eager = new ArrayList<>();
+		List<FieldPlan> lazy = new ArrayList<>();
+		final Map<String, Integer> getters = new HashMap<>();
+		final Map<String, Integer> setters = new HashMap<>();
+		for (FieldPlan field : FillPlan.of(type).getFields()) {
+			if (!isNested(field)) {
+				eager.add(field);
+				continue;
+			}
+			String name = StringUtils.capitalize(field.getName());
+			Method getter = findMethod(type, "get" + name);
+			if (getter == null) {
+				getter = findMethod(type, "is" + name);
+			}
+			if (getter == null) {
+				eager.add(field); // no getter to trigger the generation.
+			} else {
+				getters.put(getter.getName(), lazy.size());
+				setters.put("set" + name, lazy.size());
+				lazy.add(field);
+			}
+		}
+		Class<?> proxyClass = null;
+		if (!lazy.isEmpty() && isProxiable(type)) {
+			try {
+				ProxyFactory factory = new ProxyFactory();
+				factory.setSuperclass(type);
+				factory.setFilter(new MethodFilter() {
+					@Override
+					public boolean isHandled(final Method m) {
+						int count = m.getParameterTypes().length;
+						return count == 0 && getters.containsKey(m.getName()) || count == 1 && setters.containsKey(m.getName());
+					}
+				});
+				proxyClass = createClass(factory, type);
+			} catch (final IOException | ReflectiveOperationException | RuntimeException | LinkageError e) {
+				LOGGER.warn("No lazy proxy for {}, it will be filled eagerly : {}", type, e.toString());
+			}
+		}
+		return new LazyProxy(proxyClass, eager, lazy, getters, setters);
+	}
+
+	/**
+	 * Create the proxy class. On Java 9+, the class file is also written to a temporary directory : if javassist can't
+	 * define the class (from Java 16, without <code>--add-opens java.base/java.lang=ALL-UNNAMED</code>), it is defined
+	 * with {@link ClassDefiner} in the package of the proxied class.
+	 *
+	 * @param factory the configured factory.
+	 * @param type    the proxied class.
+	 * @return the proxy class.
+	 * @throws IOException                  if the class file can't be read.
+	 * @throws ReflectiveOperationException if the class can't be defined.
+	 */
+	private static Class<?> createClass(final ProxyFactory factory, final Class<?> type) throws IOException, ReflectiveOperationException {
+		if (!ClassDefiner.isSupported()) {
+			return factory.createClass();
+		}
+		Path directory = Files.createTempDirectory("lazy-proxy");
+		try {
+			factory.writeDirectory = directory.toString();
+			try {
+				return factory.createClass();
+			} catch (final RuntimeException e) {
+				LOGGER.debug("Proxy of {} defined through a lookup : {}", type, e.toString());
+			}
+			try (Stream<Path> files = Files.walk(directory)) {
+				Optional<Path> classFile = files.filter(file -> file.toString().endsWith(".class")).findFirst();
+				if (!classFile.isPresent()) {
+					throw new ClassNotFoundException("No proxy class file written for " + type);
+				}
+				return ClassDefiner.define(type, Files.readAllBytes(classFile.get()));
+			}
+		} finally {
+			try (Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+			}
+		}
+	}
+
+	/**
+	 * @param field a field.
+	 * @return true if the field holds an object graph (nested object, collection, map).
+	 */
+	private static boolean isNested(final FieldPlan field) {
+		Class<?> type = field.getType();
+		return field.getKind() != Kind.VALUE || !(type.isPrimitive() || type.isEnum() || type.isArray() || type.getName().startsWith("java."));
+	}
+
+	/**
+	 * @param type the class.
+	 * @return true if a subclass with a no-arg constructor can be generated.
+	 */
+	private static boolean isProxiable(final Class<?> type) {
+		int modifiers = type.getModifiers();
+		if (Modifier.isFinal(modifiers) || Modifier.isPrivate(modifiers) || type.isMemberClass() && !Modifier.isStatic(modifiers)
+				|| type.isAnonymousClass() || type.isLocalClass()) {
+			return false;
+		}
+		try {
+			Constructor<?> constructor = type.getDeclaredConstructor();
+			return !Modifier.isPrivate(constructor.getModifiers());
+		} catch (final NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @param type class.
+	 * @param name name of a method without parameter.
+	 * @return the public or inherited method, or null.
+	 */
+	private static Method findMethod(final Class<?> type, final String name) {
+		try {
+			Method method = type.getMethod(name);
+			return Modifier.isFinal(method.getModifiers()) || Modifier.isStatic(method.getModifiers()) ? null : method;
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Proxy class of a type and its eager and lazy fields.
+	 */
+	static final class LazyProxy {
+
+		private final Class<?> proxyClass;
+
+		private final List<FieldPlan> eagerFields;
+
+		private final List<FieldPlan> lazyFields;
+
+		private final Map<String, Integer> getters;
+
+		private final Map<String, Integer> setters;
+
+		/**
+		 * @param proxyClass  generated subclass or null.
+		 * @param eagerFields fields filled on creation.
+		 * @param lazyFields  fields filled on first access.
+		 * @param getters     getter name to index of the lazy field.
+		 * @param setters     setter name to index of the lazy field.
+		 */
+		private LazyProxy(final Class<?> proxyClass, final List<FieldPlan> eagerFields, final List<FieldPlan> lazyFields,
+				final Map<String, Integer> getters, final Map<String, Integer> setters) {
+			this.proxyClass = proxyClass;
+			this.eagerFields = Collections.unmodifiableList(eagerFields);
+			this.lazyFields = Collections.unmodifiableList(lazyFields);
+			this.getters = getters;
+			this.setters = setters;
+		}
+
+		/**
+		 * @return true if the class can be filled lazily.
+		 */
+		boolean isSupported() {
+			return proxyClass != null;
+		}
+
+		/**
+		 * @param handler handler of the getters and setters of the lazy fields.
+		 * @return a new instance of the proxy class.
+		 * @throws InstantiationException if the proxy can't be instantiated.
+		 */
+		Object newInstance(final MethodHandler handler) throws InstantiationException {
+			try {
+				Object instance = proxyClass.newInstance();
+				((ProxyObject) instance).setHandler(handler);
+				return instance;
+			} catch (final IllegalAccessException e) {
+				throw (InstantiationException) new InstantiationException(e.getMessage()).initCause(e);
+			}
+		}
+
+		/**
+		 * @return the fields filled when the instance is created.
+		 */
+		List<FieldPlan> getEagerFields() {
+			return eagerFields;
+		}
+
+		/**
+		 * @return the fields filled when their getter is called.
+		 */
+		List<FieldPlan> getLazyFields() {
+			return lazyFields;
+		}
+
+		/**
+		 * @param method a getter.
+		 * @return index of the lazy field returned by the getter or -1.
+		 */
+		int getterIndex(final Method method) {
+			Integer index = method.getParameterTypes().length == 0 ? getters.get(method.getName()) : null;
+			return index == null ? -1 : index;
+		}
+
+		/**
+		 * @param method a setter.
+		 * @return index of the lazy field set by the setter or -1.
+		 */
+		int setterIndex(final Method method) {
+			Integer index = method.getParameterTypes().length == 1 ? setters.get(method.getName()) : null;
+			return index == null ? -1 : index;
+		}
+	}
+}
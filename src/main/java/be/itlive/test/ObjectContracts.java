@@ -0,0 +1,212 @@
+package be.itlive.test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import be.itlive.common.exceptions.ServiceException;
+
+/**
+ * Verification of the equals, hashCode and toString contracts of a class over random instances (see
+ * {@link AccessorsUtil#testContracts(Class, int)}).<br/>
+ * For each instance, a second one is filled from the same seed : both must be equal, symmetrically, with the same hash
+ * code. Each instance must be equal to itself, different from null and from another type, have a stable hash code and a
+ * non null toString. Over all the instances, no hash code may be shared by many distinct instances : a hash code
+ * ignoring most of the fields makes hash maps degenerate into lists.<br/>
+ * The equals, hashCode and toString methods are invoked through {@link MethodHandle}s cached per class.
+ */
+final class ObjectContracts {
+
+	/**
+	 * Minimum number of distinct instances sharing a hash code reported as a collision.
+	 */
+	private static final int MIN_COLLISIONS = 8;
+
+	/**
+	 * Maximum share of the instances having the same hash code while being distinct (1/16).
+	 */
+	private static final int COLLISION_SHIFT = 4;
+
+	private static final ClassValue<ObjectContracts> CONTRACTS = new ClassValue<ObjectContracts>() {
+		@Override
+		protected ObjectContracts computeValue(final Class<?> type) {
+			return new ObjectContracts(type);
+		}
+	};
+
+	private final boolean customEquals;
+
+	private final MethodHandle equals;
+
+	private final MethodHandle hashCode;
+
+	private final MethodHandle toString;
+
+	/**
+	 * @param type the verified class.
+	 */
+	private ObjectContracts(final Class<?> type) {
+		try {
+			Method equalsMethod = type.getMethod("equals", Object.class);
+			this.customEquals = equalsMethod.getDeclaringClass() != Object.class;
+			this.equals = handle(equalsMethod, MethodType.methodType(boolean.class, Object.class, Object.class));
+			this.hashCode = handle(type.getMethod("hashCode"), MethodType.methodType(int.class, Object.class));
+			this.toString = handle(type.getMethod("toString"), MethodType.methodType(String.class, Object.class));
+		} catch (final ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @param method a public method, possibly declared by a non public class.
+	 * @param type   generic type of the handle.
+	 * @return the handle of the method.
+	 * @throws IllegalAccessException if the method can't be accessed.
+	 */
+	private static MethodHandle handle(final Method method, final MethodType type) throws IllegalAccessException {
+		method.setAccessible(true);
+		return MethodHandles.lookup().unreflect(method).asType(type);
+	}
+
+	/**
+	 * @param type a class.
+	 * @return the cached handles of its equals, hashCode and toString methods.
+	 */
+	static ObjectContracts of(final Class<?> type) {
+		return CONTRACTS.get(type);
+	}
+
+	/**
+	 * Check the contracts over random instances filled in parallel.
+	 *
+	 * @param type  the verified class.
+	 * @param count number of random instances.
+	 * @param seed  seed of the instances.
+	 * @throws ServiceException describing the first broken contract.
+	 */
+	void verify(final Class<?> type, final int count, final long seed) throws ServiceException {
+		final FillerOptions options = FillerOptions.options();
+		final Object[] instances = new Object[count];
+		final AtomicReference<String> failure = new AtomicReference<>();
+		IntStream.range(0, count).parallel().forEach(i -> {
+			if (failure.get() == null) {
+				Object instance = FillerUtil.fillElement(type, options, seed, i);
+				Object copy = FillerUtil.fillElement(type, options, seed, i);
+				String broken = check(instance, copy);
+				if (broken != null) {
+					failure.compareAndSet(null, type.getName() + " (seed " + seed + ", element " + i + ") : " + broken + " for " + describe(instance));
+				} else {
+					instances[i] = instance;
+				}
+			}
+		});
+		if (failure.get() != null) {
+			throw new ServiceException(failure.get());
+		}
+		if (customEquals) {
+			checkCollisions(type, instances, seed);
+		}
+	}
+
+	/**
+	 * @param type      the verified class.
+	 * @param instances the random instances.
+	 * @param seed      seed of the instances.
+	 * @throws ServiceException if too many distinct instances share a hash code.
+	 */
+	private void checkCollisions(final Class<?> type, final Object[] instances, final long seed) throws ServiceException {
+		int limit = Math.max(MIN_COLLISIONS, instances.length >> COLLISION_SHIFT);
+		Map<Integer, List<Object>> buckets = new HashMap<>();
+		for (Object instance : instances) {
+			int hash = hash(instance);
+			List<Object> distinct = buckets.get(hash);
+			if (distinct == null) {
+				distinct = new ArrayList<>(1);
+				buckets.put(hash, distinct);
+			}
+			if (!distinct.contains(instance)) {
+				distinct.add(instance);
+				if (distinct.size() > limit) {
+					throw new ServiceException(type.getName() + " (seed " + seed + ") : hashCode returned " + hash + " for more than " + limit
+							+ " distinct instances out of " + instances.length);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param instance a random instance.
+	 * @param copy     an instance filled from the same seed.
+	 * @return the broken contract or null.
+	 */
+	private String check(final Object instance, final Object copy) {
+		try {
+			if (!(boolean) equals.invokeExact(instance, instance)) {
+				return "equals is not reflexive";
+			}
+			if ((boolean) equals.invokeExact(instance, (Object) null)) {
+				return "equals(null) is true";
+			}
+			if ((boolean) equals.invokeExact(instance, new Object())) {
+				return "equals is true for another type";
+			}
+			int hash = (int) hashCode.invokeExact(instance);
+			if (hash != (int) hashCode.invokeExact(instance)) {
+				return "hashCode is not stable";
+			}
+			if ((String) toString.invokeExact(instance) == null) {
+				return "toString is null";
+			}
+			if (customEquals) {
+				boolean equal = (boolean) equals.invokeExact(instance, copy);
+				if (!equal) {
+					return "equals is false for an instance filled with the same values";
+				}
+				if (!(boolean) equals.invokeExact(copy, instance)) {
+					return "equals is not symmetric";
+				}
+				if (hash != (int) hashCode.invokeExact(copy)) {
+					return "hashCode differs for equal instances";
+				}
+			}
+			return null;
+		} catch (final Throwable e) {
+			if (e instanceof Error && !(e instanceof StackOverflowError)) {
+				throw (Error) e;
+			}
+			return "equals, hashCode or toString threw " + e;
+		}
+	}
+
+	/**
+	 * @param instance an instance.
+	 * @return its hash code.
+	 */
+	private int hash(final Object instance) {
+		try {
+			return (int) hashCode.invokeExact(instance);
+		} catch (final Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @param instance an instance.
+	 * @return its toString, or its class if toString fails.
+	 */
+	private String describe(final Object instance) {
+		try {
+			return Objects.toString((String) toString.invokeExact(instance));
+		} catch (final Throwable e) {
+			return instance.getClass().getName();
+		}
+	}
+}
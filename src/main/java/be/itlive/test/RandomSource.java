@@ -0,0 +1,263 @@
+package be.itlive.test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of the random values used by {@link FillerUtil}.<br/>
+ * Two implementations are provided :
+ * <ul>
+ * <li>{@link #threadLocal()} : backed by {@link ThreadLocalRandom}, shared by all threads without contention but not
+ * reproducible.</li>
+ * <li>{@link #seeded(long)} : backed by a {@link SplittableRandom}, the same seed always gives the same values. Such a
+ * source is not thread safe, use {@link #split()} to get an independent source for another thread.</li>
+ * </ul>
+ * Any other generator can be plugged by extending this class. The source used by default by {@link FillerUtil} and
+ * {@link AccessorsUtil} is the {@link #current()} one, which can be replaced for the current thread with
+ * {@link #setCurrent(RandomSource)} or for a whole test with {@link RandomSourceRule}.
+ */
+public abstract class RandomSource {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private static final int ASCII_FIRST = 32;
+
+	private static final int ASCII_COUNT = 95;
+
+	private static final ThreadLocal<RandomSource> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * Constructor for implementations.
+	 */
+	protected RandomSource() {
+		super();
+	}
+
+	/**
+	 * @param bound upper bound (exclusive), must be positive.
+	 * @return a random int between 0 (inclusive) and bound (exclusive).
+	 */
+	public abstract int nextInt(int bound);
+
+	/**
+	 * @return a random long.
+	 */
+	public abstract long nextLong();
+
+	/**
+	 * @return a random double between 0.0 (inclusive) and 1.0 (exclusive).
+	 */
+	public abstract double nextDouble();
+
+	/**
+	 * @return a random boolean.
+	 */
+	public abstract boolean nextBoolean();
+
+	/**
+	 * @return a source independent of this one, which can be used by another thread.
+	 */
+	public abstract RandomSource split();
+
+	/**
+	 * @return a random int between 0 (inclusive) and 2<sup>31</sup>-1 (exclusive).
+	 */
+	public int nextInt() {
+		return nextInt(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param startInclusive lower bound (inclusive).
+	 * @param endExclusive   upper bound (exclusive).
+	 * @return a random int in the range or startInclusive when the range is empty.
+	 */
+	public int nextInt(final int startInclusive, final int endExclusive) {
+		if (startInclusive >= endExclusive) {
+			return startInclusive;
+		}
+		return startInclusive + nextInt(endExclusive - startInclusive);
+	}
+
+	/**
+	 * @return a random long between 0 (inclusive) and 2<sup>63</sup>-1.
+	 */
+	public long nextNonNegativeLong() {
+		return nextLong() >>> 1;
+	}
+
+	/**
+	 * Fill an array with random bytes (the whole range of byte).
+	 *
+	 * @param bytes the array to fill.
+	 */
+	public void nextBytes(final byte[] bytes) {
+		int i = 0;
+		int length = bytes.length;
+		while (i < length) {
+			long bits = nextLong();
+			for (int n = Math.min(length - i, Long.BYTES); n-- > 0; bits >>>= Byte.SIZE) {
+				bytes[i++] = (byte) bits;
+			}
+		}
+	}
+
+	/**
+	 * @return a random char between ASCII 32 and ASCII 126.
+	 */
+	public char nextAsciiChar() {
+		return (char) (ASCII_FIRST + nextInt(ASCII_COUNT));
+	}
+
+	/**
+	 * @param length length of the string.
+	 * @return a random string of chars between ASCII 32 and ASCII 126.
+	 */
+	public String nextAscii(final int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = nextAsciiChar();
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * @return the source installed for the current thread or {@link #threadLocal()} if none.
+	 */
+	public static RandomSource current() {
+		RandomSource source = CURRENT.get();
+		if (source == null) {
+			return threadLocal();
+		}
+		return source;
+	}
+
+	/**
+	 * Install the source returned by {@link #current()} for the current thread.
+	 *
+	 * @param source the source to use, null to go back to {@link #threadLocal()}.
+	 */
+	public static void setCurrent(final RandomSource source) {
+		if (source == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(source);
+		}
+	}
+
+	/**
+	 * @return a source backed by {@link ThreadLocalRandom}.
+	 */
+	public static RandomSource threadLocal() {
+		return ThreadLocalSource.INSTANCE;
+	}
+
+	/**
+	 * @param seed the seed.
+	 * @return a reproducible source, not thread safe.
+	 */
+	public static RandomSource seeded(final long seed) {
+		return new SplittableSource(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Get the source of the n-th element of a batch. The result only depends on the seed and the index, so a batch can be
+	 * generated in any order and by any number of threads.
+	 *
+	 * @param seed  seed of the batch.
+	 * @param index index of the element in the batch.
+	 * @return a reproducible source.
+	 */
+	static RandomSource forIndex(final long seed, final long index) {
+		return seeded(mix64(seed + (index + 1) * GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Stafford variant 13 of the 64-bit mix function (as used by {@link SplittableRandom}).
+	 *
+	 * @param z value to mix.
+	 * @return mixed value.
+	 */
+	private static long mix64(final long z) {
+		long x = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+		return x ^ (x >>> 31);
+	}
+
+	/**
+	 * {@link ThreadLocalRandom} backed source.
+	 */
+	private static final class ThreadLocalSource extends RandomSource {
+
+		private static final ThreadLocalSource INSTANCE = new ThreadLocalSource();
+
+		@Override
+		public int nextInt(final int bound) {
+			return ThreadLocalRandom.current().nextInt(bound);
+		}
+
+		@Override
+		public long nextLong() {
+			return ThreadLocalRandom.current().nextLong();
+		}
+
+		@Override
+		public double nextDouble() {
+			return ThreadLocalRandom.current().nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return ThreadLocalRandom.current().nextBoolean();
+		}
+
+		@Override
+		public void nextBytes(final byte[] bytes) {
+			ThreadLocalRandom.current().nextBytes(bytes);
+		}
+
+		@Override
+		public RandomSource split() {
+			return this;
+		}
+	}
+
+	/**
+	 * {@link SplittableRandom} backed source.
+	 */
+	private static final class SplittableSource extends RandomSource {
+
+		private final SplittableRandom random;
+
+		/**
+		 * @param random the generator.
+		 */
+		private SplittableSource(final SplittableRandom random) {
+			this.random = random;
+		}
+
+		@Override
+		public int nextInt(final int bound) {
+			return random.nextInt(bound);
+		}
+
+		@Override
+		public long nextLong() {
+			return random.nextLong();
+		}
+
+		@Override
+		public double nextDouble() {
+			return random.nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return random.nextBoolean();
+		}
+
+		@Override
+		public RandomSource split() {
+			return new SplittableSource(random.split());
+		}
+	}
+}
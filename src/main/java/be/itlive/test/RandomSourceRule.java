@@ -0,0 +1,79 @@
+package be.itlive.test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This rule install a seeded {@link RandomSource} as the {@link RandomSource#current() current} source of the test
+ * thread, so that the data generated by {@link FillerUtil} and {@link AccessorsUtil} can be replayed.<br/>
+ * When a test fails the seed is logged, run it again with <code>-Dbe.itlive.test.seed=&lt;seed&gt;</code> to get the
+ * same data.<br/>
+ * The source is only installed on the test thread. The parallel verifications of {@link AccessorsUtil} give each of
+ * their workers a source split from it, and the batches of {@link FillerUtil} and the contract checks derive every
+ * element from a seed drawn on the test thread, so they are replayed too. Other threads started by the test use
+ * {@link RandomSource#threadLocal()} unless they install a source with {@link RandomSource#setCurrent(RandomSource)}.
+ *
+ * <pre>
+ * {@literal @}Rule
+ * public {@link RandomSourceRule} random = new {@link RandomSourceRule}();
+ * </pre>
+ */
+public class RandomSourceRule implements TestRule {
+
+	/**
+	 * System property used to force the seed.
+	 */
+	public static final String SEED_PROPERTY = "be.itlive.test.seed";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RandomSourceRule.class);
+
+	private final Long fixedSeed;
+
+	private long seed;
+
+	/**
+	 * Use the seed of the system property {@value #SEED_PROPERTY} or a new random seed for each test.
+	 */
+	public RandomSourceRule() {
+		this.fixedSeed = Long.getLong(SEED_PROPERTY);
+	}
+
+	/**
+	 * @param seed the seed to use for each test.
+	 */
+	public RandomSourceRule(final long seed) {
+		this.fixedSeed = seed;
+	}
+
+	@Override
+	public Statement apply(final Statement base, final Description description) {
+		return new Statement() {
+
+			@Override
+			public void evaluate() throws Throwable {
+				seed = fixedSeed != null ? fixedSeed : ThreadLocalRandom.current().nextLong();
+				RandomSource.setCurrent(RandomSource.seeded(seed));
+				try {
+					base.evaluate();
+				} catch (final Throwable e) {
+					LOGGER.error("{} failed with random seed {} (replay with -D{}={})", description.getDisplayName(), seed, SEED_PROPERTY, seed);
+					throw e;
+				} finally {
+					RandomSource.setCurrent(null);
+				}
+			}
+		};
+	}
+
+	/**
+	 * @return the seed of the running (or last) test.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+}
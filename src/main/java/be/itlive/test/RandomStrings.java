@@ -0,0 +1,235 @@
+package be.itlive.test;
+
+/**
+ * Strings of the String fields filled by {@link FillerUtil} (see {@link FillerOptions#withStrings(RandomStrings)}).
+ * <ul>
+ * <li>{@link #of(int, int, String)} : a new string of random chars of the alphabet for each call.</li>
+ * <li>{@link #pooled(int, int, String)} : a slice of a pool of random chars generated once, so each call only allocates
+ * the string itself.</li>
+ * <li>{@link #dictionary(int, RandomStrings)} : one of a fixed set of values generated once, so the calls allocate
+ * nothing and the values have a realistic cardinality.</li>
+ * </ul>
+ * The pool and the dictionaries are generated with a fixed seed : for a given seed of the fill, the values are the same
+ * in every run.
+ */
+public abstract class RandomStrings {
+
+	/**
+	 * Default length of the generated strings.
+	 */
+	public static final int DEFAULT_LENGTH = 25;
+
+	/**
+	 * Printable ASCII chars (32 to 126).
+	 */
+	public static final String ASCII;
+	static {
+		StringBuilder ascii = new StringBuilder();
+		for (char c = ' '; c <= '~'; c++) {
+			ascii.append(c);
+		}
+		ASCII = ascii.toString();
+	}
+
+	/**
+	 * Letters and digits.
+	 */
+	public static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+	private static final int POOL_SIZE = 1 << 16;
+
+	private static final long POOL_SEED = 0x5EED_5EEDL;
+
+	private static final RandomStrings DEFAULT = ascii(DEFAULT_LENGTH);
+
+	private final int minLength;
+
+	private final int maxLength;
+
+	/**
+	 * @param minLength minimum length (inclusive).
+	 * @param maxLength maximum length (inclusive).
+	 */
+	RandomStrings(final int minLength, final int maxLength) {
+		if (minLength < 0 || maxLength < minLength) {
+			throw new IllegalArgumentException("Invalid length range [" + minLength + ", " + maxLength + "]");
+		}
+		this.minLength = minLength;
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * @param random source of the random values.
+	 * @return a random string.
+	 */
+	public abstract String next(RandomSource random);
+
+	/**
+	 * @param random source of the random values.
+	 * @return a random length in the range.
+	 */
+	int nextLength(final RandomSource random) {
+		return random.nextInt(minLength, maxLength + 1);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + minLength + ".." + maxLength + "]";
+	}
+
+	/**
+	 * @return the default strings : 25 printable ASCII chars.
+	 */
+	public static RandomStrings defaults() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @param length length of the strings.
+	 * @return new strings of printable ASCII chars.
+	 */
+	public static RandomStrings ascii(final int length) {
+		return of(length, length, ASCII);
+	}
+
+	/**
+	 * @param minLength minimum length (inclusive).
+	 * @param maxLength maximum length (inclusive).
+	 * @param alphabet  chars used in the strings.
+	 * @return new strings of random chars of the alphabet.
+	 */
+	public static RandomStrings of(final int minLength, final int maxLength, final String alphabet) {
+		return new Alphabet(minLength, maxLength, alphabet.toCharArray());
+	}
+
+	/**
+	 * @param minLength minimum length (inclusive).
+	 * @param maxLength maximum length (inclusive, at most 65536).
+	 * @param alphabet  chars used in the strings.
+	 * @return slices of a pool of random chars of the alphabet.
+	 */
+	public static RandomStrings pooled(final int minLength, final int maxLength, final String alphabet) {
+		if (maxLength > POOL_SIZE) {
+			throw new IllegalArgumentException("Pooled strings are at most " + POOL_SIZE + " chars long");
+		}
+		return new Pool(minLength, maxLength, alphabet.toCharArray());
+	}
+
+	/**
+	 * @param cardinality number of distinct values.
+	 * @param values      generator of the values of the dictionary.
+	 * @return strings drawn from a dictionary of values.
+	 */
+	public static RandomStrings dictionary(final int cardinality, final RandomStrings values) {
+		if (cardinality <= 0) {
+			throw new IllegalArgumentException("The cardinality must be positive");
+		}
+		return new Dictionary(cardinality, values);
+	}
+
+	/**
+	 * @param cardinality number of distinct values.
+	 * @return strings drawn from a dictionary of default strings.
+	 */
+	public static RandomStrings dictionary(final int cardinality) {
+		return dictionary(cardinality, DEFAULT);
+	}
+
+	/**
+	 * A new char array for each string.
+	 */
+	private static final class Alphabet extends RandomStrings {
+
+		private final char[] alphabet;
+
+		/**
+		 * @param minLength minimum length (inclusive).
+		 * @param maxLength maximum length (inclusive).
+		 * @param alphabet  chars used in the strings.
+		 */
+		private Alphabet(final int minLength, final int maxLength, final char[] alphabet) {
+			super(minLength, maxLength);
+			this.alphabet = alphabet;
+		}
+
+		@Override
+		public String next(final RandomSource random) {
+			char[] chars = new char[nextLength(random)];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = alphabet[random.nextInt(alphabet.length)];
+			}
+			return new String(chars);
+		}
+
+		@Override
+		public String toString() {
+			return super.toString() + new String(alphabet);
+		}
+	}
+
+	/**
+	 * Slices of a pool generated once.
+	 */
+	private static final class Pool extends RandomStrings {
+
+		private final char[] pool = new char[POOL_SIZE];
+
+		/**
+		 * @param minLength minimum length (inclusive).
+		 * @param maxLength maximum length (inclusive).
+		 * @param alphabet  chars used in the strings.
+		 */
+		private Pool(final int minLength, final int maxLength, final char[] alphabet) {
+			super(minLength, maxLength);
+			RandomSource random = RandomSource.seeded(POOL_SEED);
+			for (int i = 0; i < pool.length; i++) {
+				pool[i] = alphabet[random.nextInt(alphabet.length)];
+			}
+		}
+
+		@Override
+		public String next(final RandomSource random) {
+			int length = nextLength(random);
+			return new String(pool, random.nextInt(POOL_SIZE - length + 1), length);
+		}
+
+		@Override
+		public String toString() {
+			return super.toString() + new String(pool, 0, Byte.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Values of a dictionary generated once.
+	 */
+	private static final class Dictionary extends RandomStrings {
+
+		private final String[] values;
+
+		private final String generator;
+
+		/**
+		 * @param cardinality number of distinct values.
+		 * @param generator   generator of the values.
+		 */
+		private Dictionary(final int cardinality, final RandomStrings generator) {
+			super(generator.minLength, generator.maxLength);
+			this.generator = generator.toString();
+			RandomSource random = RandomSource.seeded(POOL_SEED);
+			values = new String[cardinality];
+			for (int i = 0; i < cardinality; i++) {
+				values[i] = generator.next(random).intern();
+			}
+		}
+
+		@Override
+		public String next(final RandomSource random) {
+			return values[random.nextInt(values.length)];
+		}
+
+		@Override
+		public String toString() {
+			return super.toString() + values.length + generator;
+		}
+	}
+}
@@ -1,6 +1,15 @@
 package be.itlive.test;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import javax.lang.model.SourceVersion;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
@@ -23,17 +32,28 @@ import com.google.common.base.Supplier;
  *          // Where a Supplier<?> is required you can call
  *         ... field(this, "connection", Connection.class) ...
  * </pre>
+ * The field found for a class and a name (a plain name, or a regular expression) is cached, and read through a
+ * {@link MethodHandle}.
  * @author vbiertho
  *
  * @param <T> parametrized type.
  */
 public class TestFieldSupplier<T> implements Supplier<T> {
 
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, FieldAccess>> FIELDS = new ClassValue<ConcurrentMap<String, FieldAccess>>() {
+        @Override
+        protected ConcurrentMap<String, FieldAccess> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private Object testClassInstance;
 
     private Field field;
 
-    private Class<T> fieldType;
+    private MethodHandle getter;
 
     /**
      * @param testClassInstance instance of objet
@@ -41,50 +61,89 @@ public class TestFieldSupplier<T> implements Supplier<T> {
      * @param fieldType type of the field
      */
     public TestFieldSupplier(final Object testClassInstance, final String fieldName, final Class<T> fieldType) {
+        this(testClassInstance, resolve(testClassInstance.getClass(), fieldName)[0], fieldType);
+    }
+
+    /**
+     * @param testClassInstance instance of objet
+     * @param access the resolved field
+     * @param fieldType type of the field
+     */
+    private TestFieldSupplier(final Object testClassInstance, final FieldAccess access, final Class<T> fieldType) {
         this.testClassInstance = testClassInstance;
-        this.fieldType = fieldType;
-        try {
-            field = findDeclaredField(testClassInstance.getClass(), fieldName);
-            if (!field.isAccessible()) {
-                field.setAccessible(true);
-            }
-            if (!fieldType.isAssignableFrom(field.getType())) {
-                throw new RuntimeException("The type of the field (" + field.getType() + ") is not assignable to " + fieldType);
-            }
-        } catch (final NoSuchFieldException e) {
-            throw new RuntimeException(e);
+        field = access.field;
+        getter = access.getter;
+        if (!fieldType.isAssignableFrom(field.getType())) {
+            throw new RuntimeException("The type of the field (" + field.getType() + ") is not assignable to " + fieldType);
         }
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public T get() {
         try {
-            return fieldType.cast(field.get(testClassInstance));
-        } catch (final IllegalArgumentException | IllegalAccessException e) {
+            // the type of the field has been checked by the constructor.
+            return (T) getter.invokeExact(testClassInstance);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
             throw new RuntimeException("Can not access to field " + field.getName(), e);
         }
     }
 
     /**
-     * Field the hidden (private, protected) field in a type hierarchy (type and parents)
+     * Find the hidden (private, protected) fields in a type hierarchy (type and parents), walking it once for all the
+     * fields not cached yet. A plain name is compared with equals, other names are compiled once as a regular expression;
+     * the first matching field, starting from the type, is taken.
      * @param type type
-     * @param fieldName name of the field
-     * @return field.
-     * @throws NoSuchFieldException if no field of that name is found
+     * @param fieldNames names of the fields, or regular expressions matching them
+     * @return the cached fields and their getters, in the order of the names.
+     * @throws RuntimeException if a field is not found
      */
-    private static Field findDeclaredField(final Class<?> type, final String fieldName) throws NoSuchFieldException {
-        Preconditions.checkNotNull(fieldName);
+    private static FieldAccess[] resolve(final Class<?> type, final String... fieldNames) {
         Preconditions.checkNotNull(type);
-        Class<?> t = type;
-        while (t != null) {
+        ConcurrentMap<String, FieldAccess> fields = FIELDS.get(type);
+        FieldAccess[] accesses = new FieldAccess[fieldNames.length];
+        Pattern[] patterns = new Pattern[fieldNames.length];
+        int missing = 0;
+        for (int i = 0; i < fieldNames.length; i++) {
+            Preconditions.checkNotNull(fieldNames[i]);
+            accesses[i] = fields.get(fieldNames[i]);
+            if (accesses[i] == null) {
+                patterns[i] = isPlainName(fieldNames[i]) ? null : Pattern.compile(fieldNames[i]);
+                missing++;
+            }
+        }
+        for (Class<?> t = type; t != null && missing > 0; t = t.getSuperclass()) {
             for (Field f : t.getDeclaredFields()) {
-                if (f.getName().matches(fieldName)) {
-                    return f;
+                for (int i = 0; i < fieldNames.length; i++) {
+                    if (accesses[i] == null
+                            && (patterns[i] == null ? f.getName().equals(fieldNames[i]) : patterns[i].matcher(f.getName()).matches())) {
+                        accesses[i] = new FieldAccess(f);
+                        fields.putIfAbsent(fieldNames[i], accesses[i]);
+                        missing--;
+                    }
+                }
+            }
+        }
+        if (missing > 0) {
+            StringBuilder names = new StringBuilder();
+            for (int i = 0; i < fieldNames.length; i++) {
+                if (accesses[i] == null) {
+                    names.append(names.length() == 0 ? "" : "', '").append(fieldNames[i]);
                 }
             }
-            t = t.getSuperclass();
+            throw new RuntimeException(new NoSuchFieldException((missing > 1 ? "The fields '" : "The field '") + names + "' not found in instance of " + type));
         }
-        throw new NoSuchFieldException("The field '" + fieldName + "' not found in instance of " + type);
+        return accesses;
+    }
+
+    /**
+     * @param fieldName name of the field, or regular expression matching it
+     * @return true if the name only matches itself as a regular expression.
+     */
+    private static boolean isPlainName(final String fieldName) {
+        return SourceVersion.isIdentifier(fieldName) && fieldName.indexOf('$') < 0;
     }
 
     /**
@@ -98,4 +157,112 @@ public class TestFieldSupplier<T> implements Supplier<T> {
         return new TestFieldSupplier<>(testClassInstance, fieldName, fieldType);
     }
 
+    /**
+     * Resolve several fields at once, in a single walk of the type hierarchy.
+     * <pre>
+     * Fields fields = TestFieldSupplier.fields(this, "connection", "dataSource");
+     * ... fields.supplier("connection", Connection.class) ...
+     * </pre>
+     * @param testClassInstance instance of object
+     * @param fieldNames names of the fields to supply
+     * @return the resolved fields
+     */
+    public static Fields fields(final Object testClassInstance, final String... fieldNames) {
+        return new Fields(testClassInstance, fieldNames, resolve(testClassInstance.getClass(), fieldNames));
+    }
+
+    /**
+     * Fields of an object resolved by {@link TestFieldSupplier#fields(Object, String...)}.
+     */
+    public static final class Fields {
+
+        private final Object testClassInstance;
+
+        private final String[] fieldNames;
+
+        private final FieldAccess[] accesses;
+
+        /**
+         * @param testClassInstance instance of object
+         * @param fieldNames names of the fields
+         * @param accesses the resolved fields, in the order of the names
+         */
+        private Fields(final Object testClassInstance, final String[] fieldNames, final FieldAccess[] accesses) {
+            this.testClassInstance = testClassInstance;
+            this.fieldNames = fieldNames.clone();
+            this.accesses = accesses;
+        }
+
+        /**
+         * @param fieldName one of the resolved names
+         * @param <T> type of the field
+         * @param fieldType type of the field
+         * @return supplier of the current value of the field
+         */
+        public <T> Supplier<T> supplier(final String fieldName, final Class<T> fieldType) {
+            for (int i = 0; i < fieldNames.length; i++) {
+                if (fieldNames[i].equals(fieldName)) {
+                    return supplier(i, fieldType);
+                }
+            }
+            throw new IllegalArgumentException("The field '" + fieldName + "' has not been resolved");
+        }
+
+        /**
+         * @param index index of the field in the resolved names
+         * @param <T> type of the field
+         * @param fieldType type of the field
+         * @return supplier of the current value of the field
+         */
+        public <T> Supplier<T> supplier(final int index, final Class<T> fieldType) {
+            return new TestFieldSupplier<>(testClassInstance, accesses[index], fieldType);
+        }
+
+        /**
+         * @return the current values of the fields, in the order of the names
+         */
+        public Object[] snapshot() {
+            Object[] values = new Object[accesses.length];
+            try {
+                for (int i = 0; i < accesses.length; i++) {
+                    values[i] = accesses[i].getter.invokeExact(testClassInstance);
+                }
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new RuntimeException("Can not access to the fields " + String.join(", ", fieldNames), e);
+            }
+            return values;
+        }
+    }
+
+    /**
+     * A resolved field and its getter adapted to (Object)Object.
+     */
+    private static final class FieldAccess {
+
+        private final Field field;
+
+        private final MethodHandle getter;
+
+        /**
+         * @param field the field
+         */
+        private FieldAccess(final Field field) {
+            this.field = field;
+            if (!field.isAccessible()) {
+                field.setAccessible(true);
+            }
+            try {
+                MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                this.getter = handle.asType(GETTER_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new RuntimeException("Can not access to field " + field.getName(), e);
+            }
+        }
+    }
+
 }
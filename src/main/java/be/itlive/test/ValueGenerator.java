@@ -0,0 +1,16 @@
+package be.itlive.test;
+
+/**
+ * Generator of the random values of a type, see {@link ValueGenerators#register(Class, ValueGenerator)}.
+ *
+ * @param <T> type of the values.
+ */
+@FunctionalInterface
+public interface ValueGenerator<T> {
+
+	/**
+	 * @param random source of the random values.
+	 * @return a random value.
+	 */
+	T generate(RandomSource random);
+}
@@ -0,0 +1,193 @@
+package be.itlive.test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the generators used by {@link FillerUtil} for the simple types. The generator of a type is resolved once
+ * and cached per class.<br/>
+ * Custom generators can be registered for other types (java.time, UUID, value objects, ...) or to replace a built-in
+ * one. They apply to the exact registered class only. Example of use :
+ *
+ * <pre>
+ * ValueGenerators.register(UUID.class, random -&gt; new UUID(random.nextLong(), random.nextLong()));
+ * </pre>
+ *
+ * Registrations are global to the JVM : register in a static initializer or a <code>@BeforeClass</code>, and unregister
+ * in an <code>@AfterClass</code> when the generator is specific to a test.
+ */
+public final class ValueGenerators {
+
+	private static final Map<Class<?>, ValueGenerator<?>> BUILT_IN;
+	static {
+		Map<Class<?>, ValueGenerator<?>> builtIn = new HashMap<>();
+		builtIn.put(Date.class, random -> new Date(random.nextNonNegativeLong()));
+		putBoth(builtIn, boolean.class, Boolean.class, random -> random.nextBoolean());
+		putBoth(builtIn, double.class, Double.class, random -> random.nextDouble() * random.nextInt());
+		putBoth(builtIn, int.class, Integer.class, random -> random.nextInt());
+		putBoth(builtIn, long.class, Long.class, random -> random.nextNonNegativeLong());
+		putBoth(builtIn, short.class, Short.class, random -> (short) random.nextInt(0, Short.MAX_VALUE));
+		putBoth(builtIn, char.class, Character.class, random -> random.nextAsciiChar());
+		putBoth(builtIn, float.class, Float.class, random -> (float) (random.nextDouble() * random.nextInt()));
+		putBoth(builtIn, byte.class, Byte.class, random -> (byte) random.nextInt(0, Byte.MAX_VALUE));
+		builtIn.put(BigDecimal.class, random -> BigDecimal.valueOf(random.nextDouble()));
+		builtIn.put(BigInteger.class, random -> BigInteger.valueOf(random.nextInt()));
+		builtIn.put(Number.class, random -> random.nextInt(0, Byte.MAX_VALUE));
+		BUILT_IN = Collections.unmodifiableMap(builtIn);
+	}
+
+	private static final Map<Class<?>, ValueGenerator<?>> CUSTOM = new ConcurrentHashMap<>();
+
+	private static final ClassValue<Dispatch> DISPATCH = new ClassValue<Dispatch>() {
+		@Override
+		protected Dispatch computeValue(final Class<?> type) {
+			return resolve(type);
+		}
+	};
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private ValueGenerators() {
+		super();
+	}
+
+	/**
+	 * @param primitive a primitive type.
+	 * @param wrapper   its wrapper.
+	 * @param generator generator of both.
+	 * @param builtIn   the map to fill.
+	 */
+	private static void putBoth(final Map<Class<?>, ValueGenerator<?>> builtIn, final Class<?> primitive, final Class<?> wrapper,
+			final ValueGenerator<?> generator) {
+		builtIn.put(primitive, generator);
+		builtIn.put(wrapper, generator);
+	}
+
+	/**
+	 * Register the generator of a type, replacing the previous one (built-in or not).
+	 *
+	 * @param           <T> type of the values.
+	 * @param type      the exact class of the values (use the primitive class for primitive fields).
+	 * @param generator generator of the values.
+	 */
+	public static <T> void register(final Class<T> type, final ValueGenerator<? extends T> generator) {
+		CUSTOM.put(type, generator);
+		DISPATCH.remove(type);
+	}
+
+	/**
+	 * Remove the custom generator of a type, the built-in behaviour applies again.
+	 *
+	 * @param type the class given to {@link #register(Class, ValueGenerator)}.
+	 */
+	public static void unregister(final Class<?> type) {
+		CUSTOM.remove(type);
+		DISPATCH.remove(type);
+	}
+
+	/**
+	 * @return true if at least one custom generator is registered.
+	 */
+	static boolean hasCustom() {
+		return !CUSTOM.isEmpty();
+	}
+
+	/**
+	 * @param type a class.
+	 * @return true if a custom generator is registered for the class.
+	 */
+	static boolean isRegistered(final Class<?> type) {
+		return !CUSTOM.isEmpty() && CUSTOM.containsKey(type);
+	}
+
+	/**
+	 * @param type a class.
+	 * @return how the values of the class are generated.
+	 */
+	static Dispatch of(final Class<?> type) {
+		return DISPATCH.get(type);
+	}
+
+	/**
+	 * @param type a class.
+	 * @return how the values of the class are generated.
+	 */
+	private static Dispatch resolve(final Class<?> type) {
+		ValueGenerator<?> generator = CUSTOM.get(type);
+		if (generator == null) {
+			generator = BUILT_IN.get(type);
+		}
+		if (generator != null) {
+			return new Dispatch(Kind.GENERATOR, generator);
+		}
+		if (String.class.equals(type)) {
+			return new Dispatch(Kind.STRING, null);
+		}
+		if (type.isArray()) {
+			return new Dispatch(Kind.ARRAY, null);
+		}
+		if (Enum.class.isAssignableFrom(type) && type.getEnumConstants() != null) {
+			Object[] constants = type.getEnumConstants();
+			return new Dispatch(Kind.GENERATOR, random -> constants[random.nextInt(constants.length)]);
+		}
+		if (type.isAnnotation() || type.isInterface() || Enum.class.isAssignableFrom(type)) {
+			return new Dispatch(Kind.UNSUPPORTED, null);
+		}
+		return new Dispatch(Kind.BEAN, null);
+	}
+
+	/**
+	 * How the values of a class are generated.
+	 */
+	enum Kind {
+		/** by a {@link ValueGenerator}. */
+		GENERATOR,
+		/** by the {@link RandomStrings} of the fill. */
+		STRING,
+		/** array of random values. */
+		ARRAY,
+		/** nested object filled recursively. */
+		BEAN,
+		/** no value. */
+		UNSUPPORTED
+	}
+
+	/**
+	 * Resolved generation of a class.
+	 */
+	static final class Dispatch {
+
+		private final Kind kind;
+
+		private final ValueGenerator<?> generator;
+
+		/**
+		 * @param kind      how the values are generated.
+		 * @param generator the generator for {@link Kind#GENERATOR}.
+		 */
+		private Dispatch(final Kind kind, final ValueGenerator<?> generator) {
+			this.kind = kind;
+			this.generator = generator;
+		}
+
+		/**
+		 * @return how the values are generated.
+		 */
+		Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the generator for {@link Kind#GENERATOR}.
+		 */
+		ValueGenerator<?> getGenerator() {
+			return generator;
+		}
+	}
+}
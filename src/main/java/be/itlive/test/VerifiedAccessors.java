@@ -0,0 +1,141 @@
+package be.itlive.test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Index of the classes whose accessors have been verified by {@link AccessorsUtil#testAccessors(java.util.Collection, boolean)},
+ * stored in <code>target/accessors-index.txt</code> (or the file given by the system property {@value #FILE_PROPERTY}).
+ * <br/>
+ * Each line holds a class name and the hash of the bytecode of the class and of its super classes, so a class is verified
+ * again as soon as it or one of its parents is recompiled differently. The file is written to a temporary file then
+ * moved; any problem is logged and leads to a verification.
+ */
+final class VerifiedAccessors {
+
+	/**
+	 * System property overriding the file of the index.
+	 */
+	static final String FILE_PROPERTY = "be.itlive.test.accessorsIndex";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(VerifiedAccessors.class);
+
+	private static final String HEADER = "# accessors index v1";
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private VerifiedAccessors() {
+		super();
+	}
+
+	/**
+	 * @return the file of the index.
+	 */
+	static Path file() {
+		return Paths.get(System.getProperty(FILE_PROPERTY, "target/accessors-index.txt"));
+	}
+
+	/**
+	 * @param file the file of the index.
+	 * @return class name to hash of the verified classes, empty if there is no valid index.
+	 */
+	static Map<String, String> load(final Path file) {
+		Map<String, String> hashes = new TreeMap<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			if (!HEADER.equals(reader.readLine())) {
+				return hashes;
+			}
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				int separator = line.indexOf('=');
+				if (separator > 0) {
+					hashes.put(line.substring(0, separator), line.substring(separator + 1));
+				}
+			}
+		} catch (final NoSuchFileException e) {
+			// first run.
+		} catch (final IOException e) {
+			LOGGER.debug("Accessors index {} ignored : {}", file, e.toString());
+			hashes.clear();
+		}
+		return hashes;
+	}
+
+	/**
+	 * @param hashes class name to hash of the verified classes.
+	 * @param file   the file of the index.
+	 */
+	static void store(final Map<String, String> hashes, final Path file) {
+		try {
+			Path directory = file.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			try {
+				try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+					writer.write(HEADER);
+					writer.newLine();
+					for (Map.Entry<String, String> entry : new TreeMap<>(hashes).entrySet()) {
+						writer.write(entry.getKey() + '=' + entry.getValue());
+						writer.newLine();
+					}
+				}
+				try {
+					Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				} catch (final AtomicMoveNotSupportedException e) {
+					Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				Files.deleteIfExists(temporary);
+			}
+		} catch (final IOException e) {
+			LOGGER.debug("Accessors index {} not saved : {}", file, e.toString());
+		}
+	}
+
+	/**
+	 * @param type a class.
+	 * @return the hexadecimal SHA-256 of the bytecode of the class and its super classes (up to the first JDK class), or
+	 *         null if a class file can't be read.
+	 */
+	static String hash(final Class<?> type) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (Class<?> current = type; current != null && current.getClassLoader() != null; current = current.getSuperclass()) {
+				String resource = current.getName().replace('.', '/') + ".class";
+				try (InputStream input = current.getClassLoader().getResourceAsStream(resource)) {
+					if (input == null) {
+						return null;
+					}
+					digest.update(current.getName().getBytes(StandardCharsets.UTF_8));
+					ByteStreams.exhaust(new DigestInputStream(input, digest));
+				}
+			}
+			return BaseEncoding.base16().lowerCase().encode(digest.digest());
+		} catch (final IOException e) {
+			LOGGER.debug("No hash of {} : {}", type, e.toString());
+			return null;
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -3,6 +3,8 @@ package be.itlive.test;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
@@ -15,6 +17,8 @@ import org.apache.xerces.util.XMLCatalogResolver;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.bootstrap.DOMImplementationRegistry;
 import org.w3c.dom.ls.DOMImplementationLS;
 import org.w3c.dom.ls.LSInput;
@@ -23,14 +27,33 @@ import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.helpers.DefaultHandler;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import junit.framework.AssertionFailedError;
 
 /**
+ * Rule validating xml resources against a set of schemas.<br/>
+ * The compiled schemas are shared by all the instances of the JVM : a set of schema urls and catalogs is compiled once.
+ * The cache is unbounded unless the system property {@value #CACHE_SIZE_PROPERTY} gives its maximum number of schema
+ * sets (an invalid value is logged and ignored).
  * @author vbiertho
  *
  */
 public class XmlSchemaValidation implements TestRule {
 
+    /**
+     * System property giving the maximum number of compiled schema sets kept in the cache.
+     */
+    public static final String CACHE_SIZE_PROPERTY = "be.itlive.test.schemaCacheSize";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(XmlSchemaValidation.class);
+
+    private static final LoadingCache<SchemaKey, Schema> SCHEMAS = newCache();
+
     /**
      * @author vbiertho
      *
@@ -64,15 +87,14 @@ public class XmlSchemaValidation implements TestRule {
         SAXParserFactory factory = null;
         try {
 
-            CatalogUrlResourceResolver resolver = new CatalogUrlResourceResolver((DOMImplementationLS) DOMImplementationRegistry.newInstance()
-                    .getDOMImplementation("XML"), new XMLCatalogResolver(catalogs));
-
             factory = SAXParserFactory.newInstance();
             factory.setNamespaceAware(true);
             factory.setXIncludeAware(true);
-            factory.setSchema(loadSchema(resolver, schemaLocationURL));
+            factory.setSchema(SCHEMAS.get(new SchemaKey(schemaLocationURL, catalogs)));
             factory.setValidating(false);
 
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            ex = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
         } catch (final Exception e) {
             ex = e;
         }
@@ -80,6 +102,52 @@ public class XmlSchemaValidation implements TestRule {
         this.loadingSchemaError = ex;
     }
 
+    /**
+     * @return the cache of the compiled schemas, bounded by the system property {@value #CACHE_SIZE_PROPERTY} if set.
+     */
+    private static LoadingCache<SchemaKey, Schema> newCache() {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+        long maximumSize = maximumSize(System.getProperty(CACHE_SIZE_PROPERTY));
+        if (maximumSize >= 0) {
+            builder.maximumSize(maximumSize);
+        }
+        return builder.build(new CacheLoader<SchemaKey, Schema>() {
+            @Override
+            public Schema load(final SchemaKey key) throws Exception {
+                CatalogUrlResourceResolver resolver = new CatalogUrlResourceResolver((DOMImplementationLS) DOMImplementationRegistry.newInstance()
+                        .getDOMImplementation("XML"), new XMLCatalogResolver(key.catalogs.toArray(new String[key.catalogs.size()])));
+                return loadSchema(resolver, key.schemaLocationURL.toArray(new String[key.schemaLocationURL.size()]));
+            }
+        });
+    }
+
+    /**
+     * @param maximumSize value of the system property {@value #CACHE_SIZE_PROPERTY} (optional)
+     * @return the maximum number of compiled schema sets, -1 for an unbounded cache.
+     */
+    static long maximumSize(final String maximumSize) {
+        if (maximumSize == null || maximumSize.trim().isEmpty()) {
+            return -1;
+        }
+        try {
+            long size = Long.parseLong(maximumSize.trim());
+            if (size >= 0) {
+                return size;
+            }
+        } catch (final NumberFormatException e) {
+            // logged below.
+        }
+        LOGGER.warn("Invalid value '{}' of the system property {} ignored : the schema cache is unbounded", maximumSize, CACHE_SIZE_PROPERTY);
+        return -1;
+    }
+
+    /**
+     * Remove the compiled schemas from the cache shared by the instances.
+     */
+    public static void clearSchemaCache() {
+        SCHEMAS.invalidateAll();
+    }
+
     /**
      * @param resolver uri resolver
      * @param schemaLocationURL location of schemas
@@ -102,6 +170,13 @@ public class XmlSchemaValidation implements TestRule {
         return schema;
     }
 
+    /**
+     * @return the compiled schemas used by this rule, null if they could not be loaded.
+     */
+    Schema getSchema() {
+        return saxfactory == null ? null : saxfactory.getSchema();
+    }
+
     @Override
     public Statement apply(final Statement base, final Description description) {
         return new Statement() {
@@ -210,6 +285,39 @@ public class XmlSchemaValidation implements TestRule {
         }
     }
 
+    /**
+     * Key of a compiled schema set : schema urls and catalogs, in order.
+     */
+    private static final class SchemaKey {
+
+        private final List<String> schemaLocationURL;
+
+        private final List<String> catalogs;
+
+        /**
+         * @param schemaLocationURL url of the schemas
+         * @param catalogs catalogs (optional)
+         */
+        private SchemaKey(final String[] schemaLocationURL, final String[] catalogs) {
+            this.schemaLocationURL = ImmutableList.copyOf(schemaLocationURL);
+            this.catalogs = catalogs == null ? ImmutableList.<String> of() : ImmutableList.copyOf(catalogs);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof SchemaKey)) {
+                return false;
+            }
+            SchemaKey other = (SchemaKey) obj;
+            return schemaLocationURL.equals(other.schemaLocationURL) && catalogs.equals(other.catalogs);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * schemaLocationURL.hashCode() + catalogs.hashCode();
+        }
+    }
+
     /**
      * SaxHandler which throw {@link AssertionFailedError} when there is an error or fatalError while in parsing/validating xml.
      * @author vbiertho
@@ -3,6 +3,13 @@ package be.itlive.test.persistence;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.withSettings;
 
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -11,13 +18,22 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
+import org.apache.commons.lang3.ClassUtils;
 import org.mockito.MockSettings;
 import org.mockito.internal.stubbing.defaultanswers.ForwardsInvocations;
 import org.mockito.stubbing.Answer;
 
+import be.itlive.common.utils.ReflectionUtils;
+import be.itlive.test.FillerOptions;
+import be.itlive.test.FillerUtil;
+
 /**
  *
  * @author vbiertho
@@ -25,9 +41,22 @@ import org.mockito.stubbing.Answer;
  */
 public class ResultSetMockery {
 
+    private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private static final String[] COLUMN_ANNOTATIONS = { "javax.persistence.Column", "jakarta.persistence.Column" };
+
     private final List<String> columns;
 
-    private final List<List<String>> rows;
+    private final List<Pattern> columnPatterns;
+
+    /**
+     * Values stored by column : values.get(column).get(row).
+     */
+    private final List<List<Object>> values;
+
+    private final Map<String, Integer> columnIndexes = new ConcurrentHashMap<>();
+
+    private int rowCount;
 
     private final SQLAliasMapper aliasMapper;
 
@@ -35,6 +64,83 @@ public class ResultSetMockery {
         return new ResultSetMockery(columns);
     }
 
+    /**
+     * Generate a result set from random beans (see {@link FillerUtil#generator(Class, FillerOptions)}). There is one
+     * column per simple field (primitives, wrappers, String, dates, BigDecimal, BigInteger, enums), named after the JPA
+     * <code>@Column(name)</code> of the field when present, else after the field. The values are kept typed, so no
+     * intermediate text rows are built.
+     *
+     * @param beanClass class of the beans.
+     * @param rowCount  number of rows.
+     * @param options   settings of the fills (use a seed for a reproducible result set).
+     * @return a new result set mockery.
+     */
+    public static ResultSetMockery fromBeans(final Class<?> beanClass, final int rowCount, final FillerOptions options) {
+        List<Field> fields = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (Field field : ReflectionUtils.collectFields(beanClass, Modifier.STATIC)) {
+            if (isColumnType(field.getType()) && !field.isSynthetic()) {
+                fields.add(field);
+                names.add(columnName(field));
+            }
+        }
+        ResultSetMockery resultSetMockery = new ResultSetMockery(names.toArray(new String[names.size()]));
+        MethodHandle[] getters = new MethodHandle[fields.size()];
+        try {
+            for (int i = 0; i < getters.length; i++) {
+                fields.get(i).setAccessible(true);
+                getters[i] = MethodHandles.lookup().unreflectGetter(fields.get(i));
+                ((ArrayList<Object>) resultSetMockery.values.get(i)).ensureCapacity(rowCount);
+            }
+            Iterator<?> beans = FillerUtil.generator(beanClass, options);
+            for (int row = 0; row < rowCount; row++) {
+                Object bean = beans.next();
+                for (int i = 0; i < getters.length; i++) {
+                    resultSetMockery.values.get(i).add(getters[i].invoke(bean));
+                }
+            }
+        } catch (final Error | RuntimeException e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new IllegalStateException("Can't read the fields of " + beanClass, e);
+        }
+        resultSetMockery.rowCount = rowCount;
+        return resultSetMockery;
+    }
+
+    /**
+     * Generate a result set from random beans (see {@link #fromBeans(Class, int, FillerOptions)}).
+     *
+     * @param beanClass class of the beans.
+     * @param rowCount  number of rows.
+     * @param seed      seed of the random values.
+     * @return a new result set mockery.
+     */
+    public static ResultSetMockery fromBeans(final Class<?> beanClass, final int rowCount, final long seed) {
+        return fromBeans(beanClass, rowCount, FillerOptions.options().withSeed(seed));
+    }
+
+    private static boolean isColumnType(final Class<?> type) {
+        return type.isPrimitive() || ClassUtils.isPrimitiveWrapper(type) || type.isEnum() || String.class.equals(type)
+                || Date.class.isAssignableFrom(type) || BigDecimal.class.equals(type) || BigInteger.class.equals(type);
+    }
+
+    private static String columnName(final Field field) {
+        for (Annotation annotation : field.getAnnotations()) {
+            if (Arrays.asList(COLUMN_ANNOTATIONS).contains(annotation.annotationType().getName())) {
+                try {
+                    String name = (String) annotation.annotationType().getMethod("name").invoke(annotation);
+                    if (!name.isEmpty()) {
+                        return name;
+                    }
+                } catch (final ReflectiveOperationException e) {
+                    // keep the field name.
+                }
+            }
+        }
+        return field.getName();
+    }
+
     public static ResultSetMockery fromCSVLines(final String header, final String nullValue, final String... lines) {
         ResultSetMockery resultSetMockery = new ResultSetMockery(header);
         for (String line : lines) {
@@ -51,24 +157,39 @@ public class ResultSetMockery {
         } else {
             this.columns = Arrays.asList(columns);
         }
-        rows = new ArrayList<List<String>>();
+        this.columnPatterns = new ArrayList<>(this.columns.size());
+        this.values = new ArrayList<>(this.columns.size());
+        for (String columnName : this.columns) {
+            columnPatterns.add(Pattern.compile(".*(?:^|\\.)" + columnName));
+            values.add(new ArrayList<>());
+        }
     }
 
+    /**
+     * @param values values of the row separated by ';' (trailing empty values are dropped, see {@link #addRow(String...)})
+     * @param nullValue value standing for null (optional)
+     * @return this
+     */
     public ResultSetMockery parseRow(final String values, final String nullValue) {
-        List<String> row = new ArrayList<String>();
-        for (String s : values.split(";")) {
-            if (nullValue != null && nullValue.equals(s)) {
-                row.add(null);
-            } else {
-                row.add(s);
+        String[] row = values.split(";");
+        for (int i = 0; i < row.length; i++) {
+            if (nullValue != null && nullValue.equals(row[i])) {
+                row[i] = null;
             }
         }
-        rows.add(row);
-        return this;
+        return addRow(row);
     }
 
+    /**
+     * @param values values of the row, one per column : the missing trailing values are null, the extra values are
+     *            ignored
+     * @return this
+     */
     public ResultSetMockery addRow(final String... values) {
-        rows.add(Arrays.asList(values));
+        for (int i = 0; i < columns.size(); i++) {
+            this.values.get(i).add(i < values.length ? values[i] : null);
+        }
+        rowCount++;
         return this;
     }
 
@@ -113,13 +234,17 @@ public class ResultSetMockery {
 
     private int findColumnIndex(final String alias) {
         final String requestedColumn = translateAlias(alias);
-        for (int i = 0; i < columns.size(); i++) {
-            String columnName = columns.get(i);
-            if (Pattern.matches(".*(?:^|\\.)" + columnName, requestedColumn)) {
-                return i;
+        Integer index = columnIndexes.get(requestedColumn);
+        if (index == null) {
+            index = -1;
+            for (int i = 0; i < columnPatterns.size() && index == -1; i++) {
+                if (columnPatterns.get(i).matcher(requestedColumn).matches()) {
+                    index = i;
+                }
             }
+            columnIndexes.put(requestedColumn, index);
         }
-        return -1;
+        return index;
     }
 
     public class ResultSetStub {
@@ -138,7 +263,7 @@ public class ResultSetMockery {
         }
 
         public boolean next() {
-            if (currentrow + 1 >= rows.size()) {
+            if (currentrow + 1 >= rowCount) {
                 return false;
             } else {
                 currentrow++;
@@ -146,78 +271,106 @@ public class ResultSetMockery {
             }
         }
 
-        public String getString(final String alias) {
+        private Object getValue(final String alias) {
             int colIndex = findColumnIndex(translateAlias(alias));
             if (colIndex == -1) {
                 System.out.println("Missing columns in ResultSet Mock : " + translateAlias(alias));
                 lastWasNull = true;
                 return null;
             }
-            return getString(colIndex + 1);
+            return getValue(colIndex + 1);
         }
 
-        public String getString(final int position) {
-            String s = rows.get(currentrow).get(position - 1);
-            if (s == null) {
-                lastWasNull = true;
-                return null;
+        private Object getValue(final int position) {
+            Object value = values.get(position - 1).get(currentrow);
+            lastWasNull = value == null;
+            return value;
+        }
+
+        private String asString(final Object value) {
+            if (value == null || value instanceof String) {
+                return (String) value;
+            } else if (value instanceof Date) {
+                return new SimpleDateFormat(DATE_FORMAT).format((Date) value);
             } else {
-                lastWasNull = false;
-                return s;
+                return value.toString();
             }
         }
 
-        public long getLong(final String value) {
-            String s = getString(value);
-            if (s == null) {
+        private long asLong(final Object value) {
+            if (value == null) {
                 return 0;
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return ((Number) value).longValue();
             } else {
-                return Long.valueOf(s);
+                return Long.valueOf(asString(value));
             }
         }
 
-        public long getLong(final int position) {
-            String s = getString(position);
-            if (s == null) {
+        private int asInt(final Object value) {
+            if (value == null) {
                 return 0;
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return ((Number) value).intValue();
             } else {
-                return Long.valueOf(s);
+                return Integer.valueOf(asString(value));
             }
         }
 
-        public int getInt(final String value) {
-            String s = getString(value);
-            if (s == null) {
-                return 0;
+        private long asTime(final Object value) throws ParseException {
+            if (value instanceof Date) {
+                return ((Date) value).getTime();
             } else {
-                return Integer.valueOf(s);
+                return new SimpleDateFormat(DATE_FORMAT).parse(asString(value)).getTime();
             }
         }
 
+        public String getString(final String alias) {
+            return asString(getValue(alias));
+        }
+
+        public String getString(final int position) {
+            return asString(getValue(position));
+        }
+
+        public long getLong(final String value) {
+            return asLong(getValue(value));
+        }
+
+        public long getLong(final int position) {
+            return asLong(getValue(position));
+        }
+
+        public int getInt(final String value) {
+            return asInt(getValue(value));
+        }
+
         public Timestamp getTimestamp(final String colName) throws ParseException {
-            String s = getString(colName);
-            if (s == null) {
+            Object value = getValue(colName);
+            if (value == null) {
                 return null;
             } else {
-                return new Timestamp(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse(s).getTime());
+                return new Timestamp(asTime(value));
             }
         }
 
         public java.sql.Date getDate(final String colName) throws ParseException {
-            String s = getString(colName);
-            if (s == null) {
+            Object value = getValue(colName);
+            if (value == null) {
                 return null;
             } else {
-                return new java.sql.Date(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse(s).getTime());
+                return new java.sql.Date(asTime(value));
             }
         }
 
         public boolean getBoolean(final String colName) {
-            String s = getString(colName);
-            if (s == null) {
+            Object value = getValue(colName);
+            if (value == null) {
                 return false;
+            } else if (value instanceof Boolean) {
+                return (Boolean) value;
             } else {
-                return Boolean.parseBoolean(s);
+                return Boolean.parseBoolean(asString(value));
             }
         }
 
@@ -0,0 +1,260 @@
+package be.itlive.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import be.itlive.common.exceptions.ServiceException;
+import be.itlive.test.AccessorIndex.Accessor;
+import be.itlive.test.AccessorsProfile.AccessorCost;
+import be.itlive.test.AccessorsReport.ClassResult;
+import be.itlive.test.accessors.AssertingGetter;
+import be.itlive.test.accessors.Customer;
+import be.itlive.test.accessors.IgnoredSetter;
+import be.itlive.test.accessors.RecursiveGetter;
+
+public class AccessorsUtilTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testAccessorsInPackage() throws Exception {
+		AccessorsReport report = AccessorsUtil.testAccessorsInPackage("be.itlive.test.accessors");
+		Map<Class<?>, Throwable> results = new HashMap<>();
+		for (ClassResult result : report.getResults()) {
+			results.put(result.getType(), result.getFailure());
+		}
+		assertThat(results).containsOnlyKeys(Customer.class, IgnoredSetter.class, AssertingGetter.class, RecursiveGetter.class);
+		assertThat(results.get(Customer.class)).isNull();
+		assertThat(results.get(IgnoredSetter.class)).isInstanceOf(ServiceException.class);
+		assertThat(results.get(AssertingGetter.class)).isInstanceOf(AssertionError.class);
+		assertThat(results.get(RecursiveGetter.class)).isInstanceOf(StackOverflowError.class);
+		assertEquals(3, report.getFailures().size());
+		assertFalse(report.isSuccessful());
+		try {
+			report.check();
+			fail("the failures must be reported");
+		} catch (final ServiceException e) {
+			assertThat(e.getSuppressed()).hasSize(3);
+		}
+	}
+
+	@Test
+	public void testInheritedAccessors() throws Exception {
+		Map<String, String> getters = new HashMap<>();
+		for (Accessor accessor : AccessorIndex.of(Derived.class).getAccessors()) {
+			getters.put(accessor.getName(), accessor.getGetter().getName());
+		}
+		assertThat(getters).containsEntry("code", "getCode").containsEntry("rank", "getRank");
+		assertTrue(AccessorsUtil.testAccessors(Derived.class));
+		try {
+			AccessorsUtil.testAccessors(Forgetful.class);
+			fail("the overriding setter of the inherited field must be checked");
+		} catch (final ServiceException e) {
+			assertThat(e.getMessage()).contains("getCode");
+		}
+	}
+
+	@Test
+	public void testBooleanAccessors() throws Exception {
+		List<Accessor> accessors = AccessorIndex.of(Flag.class).getAccessors();
+		assertEquals(1, accessors.size());
+		assertEquals("isActive", accessors.get(0).getGetter().getName());
+		for (int i = 0; i < 10; i++) {
+			assertTrue(AccessorsUtil.testAccessors(Flag.class));
+		}
+	}
+
+	public static class Base {
+
+		private String code;
+
+		public String getCode() {
+			return code;
+		}
+
+		public void setCode(final String code) {
+			this.code = code;
+		}
+	}
+
+	public static class Derived extends Base {
+
+		private int rank;
+
+		public int getRank() {
+			return rank;
+		}
+
+		public void setRank(final int rank) {
+			this.rank = rank;
+		}
+	}
+
+	public static class Forgetful extends Base {
+
+		@Override
+		public void setCode(final String code) {
+			// forgotten.
+		}
+	}
+
+	public static class Flag {
+
+		private boolean active;
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public boolean getActive() {
+			throw new AssertionError("isActive must be preferred");
+		}
+
+		public void setActive(final boolean active) {
+			this.active = active;
+		}
+	}
+
+	@Test
+	public void testIncrementalAccessors() throws Exception {
+		File index = new File(folder.getRoot(), "accessors-index.txt");
+		String previous = System.setProperty(VerifiedAccessors.FILE_PROPERTY, index.getPath());
+		try {
+			List<Class<?>> classes = Arrays.<Class<?>> asList(Customer.class, IgnoredSetter.class);
+			AccessorsReport first = AccessorsUtil.testAccessors(classes, true);
+			assertThat(first.getSkipped()).isEmpty();
+			assertEquals(2, first.getResults().size());
+			assertThat(index).exists();
+
+			AccessorsReport second = AccessorsUtil.testAccessors(classes, true);
+			assertThat(second.getSkipped()).containsExactly(Customer.class);
+			assertEquals(1, second.getResults().size());
+			assertEquals(IgnoredSetter.class, second.getFailures().get(0).getType());
+
+			assertThat(AccessorsUtil.testAccessors(classes, false).getSkipped()).isEmpty();
+		} finally {
+			if (previous == null) {
+				System.clearProperty(VerifiedAccessors.FILE_PROPERTY);
+			} else {
+				System.setProperty(VerifiedAccessors.FILE_PROPERTY, previous);
+			}
+		}
+	}
+
+	@Test
+	public void testContracts() throws Exception {
+		assertTrue(AccessorsUtil.testContracts(Value.class, 200));
+		try {
+			AccessorsUtil.testContracts(ConstantHash.class, 200);
+			fail("a constant hashCode must be reported");
+		} catch (final ServiceException e) {
+			assertThat(e.getMessage()).contains(ConstantHash.class.getName()).contains("hashCode returned 42");
+		}
+		AccessorsReport report = AccessorsUtil.testContracts(Arrays.<Class<?>> asList(Value.class, ConstantHash.class), 200);
+		assertEquals(1, report.getFailures().size());
+		assertEquals(ConstantHash.class, report.getFailures().get(0).getType());
+	}
+
+	@Test
+	public void testContractsReplayed() throws Exception {
+		List<Class<?>> classes = Arrays.<Class<?>> asList(Value.class, ConstantHash.class);
+		String[] messages = new String[2];
+		try {
+			for (int i = 0; i < messages.length; i++) {
+				RandomSource.setCurrent(RandomSource.seeded(42L));
+				messages[i] = AccessorsUtil.testContracts(classes, 100).getFailures().get(0).getFailure().getMessage();
+			}
+		} finally {
+			RandomSource.setCurrent(null);
+		}
+		assertThat(messages[0]).contains("seed").isEqualTo(messages[1]);
+	}
+
+	@Test
+	public void testProfileAccessors() throws Exception {
+		assumeTrue(Allocations.isSupported());
+		AccessorsProfile profile = AccessorsUtil.profileAccessors(Copying.class);
+		assertThat(profile.getCosts()).extracting("method").contains("getName", "setName", "getItems", "setItems");
+		assertThat(profile.getExpensive()).extracting("method").contains("getItems").doesNotContain("setItems");
+		for (AccessorCost cost : profile.getExpensive()) {
+			if ("getItems".equals(cost.getMethod())) {
+				assertThat(cost.getBytes()).isGreaterThan(cost.getFieldBytes() + 32);
+			}
+		}
+		try {
+			profile.check();
+			fail("the defensive copy must be reported");
+		} catch (final ServiceException e) {
+			assertThat(e.getMessage()).contains("getItems");
+		}
+	}
+
+	public static class Copying {
+
+		private String name;
+
+		private List<String> items;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(final String name) {
+			this.name = name;
+		}
+
+		public List<String> getItems() {
+			return new ArrayList<>(items);
+		}
+
+		public void setItems(final List<String> items) {
+			this.items = items;
+		}
+	}
+
+	public static class Value {
+
+		private String name;
+
+		private Long id;
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof Value)) {
+				return false;
+			}
+			Value other = (Value) obj;
+			return Objects.equals(name, other.name) && Objects.equals(id, other.id);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(name, id);
+		}
+	}
+
+	public static class ConstantHash extends Value {
+
+		@Override
+		public int hashCode() {
+			return 42;
+		}
+	}
+}
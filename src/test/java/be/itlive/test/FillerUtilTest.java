@@ -5,19 +5,34 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.management.ObjectName;
 
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -25,6 +40,7 @@ import org.slf4j.Logger;
 import com.google.common.collect.Lists;
 
 import be.itlive.test.logging.AbstractTestLogger;
+import javassist.util.proxy.ProxyFactory;
 
 public class FillerUtilTest extends AbstractTestLogger {
 	private final static Logger LOGGER = org.slf4j.LoggerFactory.getLogger(FillerUtilTest.class);
@@ -83,6 +99,448 @@ public class FillerUtilTest extends AbstractTestLogger {
 	        assertThat(data.aList.get(0).aString, is(notNullValue(String.class)));
 	    }
 
+  @Test
+  public void testFillPlanIsCached() throws Exception {
+      assertSame(FillPlan.of(Primitives.class), FillPlan.of(Primitives.class));
+
+      Primitives first = FillerUtil.fill(Primitives.class);
+      Primitives second = FillerUtil.fill(Primitives.class, "aByte");
+      assertNotNull(first.aDate);
+      assertNotNull(second.aDate);
+      assertThat(second.aByte).isEqualTo((byte) 0);
+  }
+
+  @Test
+  public void testFillManyIsReproducible() throws Exception {
+      List<Primitives> first = FillerUtil.fillMany(Primitives.class, 500, 42L);
+      List<Primitives> second = FillerUtil.fillStream(Primitives.class, 500, 42L).collect(Collectors.toList());
+      assertThat(first).hasSize(500);
+      for (int i = 0; i < first.size(); i++) {
+          assertThat(second.get(i)).isEqualToComparingFieldByField(first.get(i));
+      }
+      assertThat(FillerUtil.fillMany(Primitives.class, 1, 43L).get(0).aDate).isNotEqualTo(first.get(0).aDate);
+  }
+
+  @Test
+  public void testFillWithCurrentRandomSource() throws Exception {
+      RandomSource.setCurrent(RandomSource.seeded(7L));
+      Primitives first = FillerUtil.fill(Primitives.class);
+      RandomSource.setCurrent(RandomSource.seeded(7L));
+      Primitives second = FillerUtil.fill(Primitives.class);
+      RandomSource.setCurrent(null);
+      assertThat(second).isEqualToComparingFieldByField(first);
+      assertThat(FillerUtil.fill(Primitives.class, RandomSource.seeded(7L))).isEqualToComparingFieldByField(first);
+  }
+
+  @Test
+  public void testFillWithGeneratedFillers() throws Exception {
+      FillerOptions options = FillerOptions.options().withGeneratedFillers(true);
+      assertNotNull(DirectFillers.of(Bean.class).getFiller());
+      for (int i = 0; i < 10; i++) {
+          Bean bean = FillerUtil.fill(Bean.class, options);
+          assertNotNull(bean.aString);
+          assertNotNull(bean.getaPrivateString());
+          assertNotNull(bean.aDecimal);
+          assertNotNull(bean.aHidden);
+          assertThat(bean.someData).isNotEmpty();
+      }
+      Bean ignored = FillerUtil.fill(Bean.class, options.ignoring("aString"));
+      assertNull(ignored.aString);
+      assertNotNull(ignored.aDecimal);
+  }
+
+  public static class Bean {
+      public String aString;
+
+      long aLong;
+
+      Integer anInteger;
+
+      BigDecimal aDecimal;
+
+      private String aPrivateString;
+
+      private Date aHidden;
+
+      private List<Primitives> someData;
+
+      public String getaPrivateString() {
+          return aPrivateString;
+      }
+
+      public void setaPrivateString(final String aPrivateString) {
+          this.aPrivateString = aPrivateString;
+      }
+  }
+
+  @Test
+  public void testFillWithBudget() throws Exception {
+      Data data = FillerUtil.fill(Data.class, FillerOptions.options().withMaxObjects(6));
+      assertNotNull(data.aString);
+      assertThat(data.aList.size() + data.aSet.size()).isLessThan(6);
+
+      Data small = FillerUtil.fill(Data.class, FillerOptions.options().withMaxBytes(1000));
+      assertThat(small.aList.size() + small.aSet.size()).isLessThan(10);
+  }
+
+  @Test
+  public void testFillWithInstanceSharing() throws Exception {
+      Node root = FillerUtil.fill(Node.class, FillerOptions.options().withInstanceSharing(true).withCollectionSize(3));
+      assertNotNull(root.parent);
+      assertSame(root, root.parent.parent);
+      assertThat(root.children).hasSize(3);
+      for (Node child : root.children) {
+          assertSame(root, child.parent);
+      }
+  }
+
+  public static class Node {
+      private String name;
+
+      private Node parent;
+
+      private List<Node> children;
+  }
+
+  @Test
+  public void testLazyFill() throws Exception {
+      Tree tree = FillerUtil.fill(Tree.class, FillerOptions.options().withLazyFill(true).withCollectionSize(2));
+      assertTrue(ProxyFactory.isProxyClass(tree.getClass()));
+      Field left = Tree.class.getDeclaredField("left");
+      left.setAccessible(true);
+      assertNull(left.get(tree));
+      assertNotNull(tree.getName());
+      assertThat(tree.getChildren()).hasSize(2);
+      assertNotNull(tree.getChildren().get(0).getName());
+      assertNotNull(tree.getLeft().getName());
+
+      Tree set = FillerUtil.fill(Tree.class, FillerOptions.options().withLazyFill(true));
+      set.setLeft(null);
+      assertNull(set.getLeft());
+  }
+
+  public static class Tree {
+      private String name;
+
+      private Tree left;
+
+      private List<Tree> children;
+
+      public String getName() {
+          return name;
+      }
+
+      public Tree getLeft() {
+          return left;
+      }
+
+      public void setLeft(final Tree left) {
+          this.left = left;
+      }
+
+      public List<Tree> getChildren() {
+          return children;
+      }
+  }
+
+  @Test
+  public void testArraysAndBuffers() throws Exception {
+      ArrayData arrays = FillerUtil.fill(ArrayData.class, FillerOptions.options().withArraySize(4));
+      assertThat(arrays.someBytes).hasSize(4);
+      assertThat(arrays.someLongs).hasSize(4);
+      assertThat(arrays.someStrings).hasSize(4).doesNotContainNull();
+      assertThat(arrays.someData[0].aDate).isNotNull();
+
+      ByteBuffer direct = FillerUtil.randomBuffer(1001, true);
+      assertThat(direct.isDirect()).isTrue();
+      assertThat(direct.remaining()).isEqualTo(1001);
+      assertThat(FillerUtil.randomInts(100)).hasSize(100).isNotEqualTo(new int[100]);
+  }
+
+  public static class ArrayData {
+      private byte[] someBytes;
+
+      private long[] someLongs;
+
+      private String[] someStrings;
+
+      private Primitives[] someData;
+  }
+
+  @Test
+  public void testGenerator() throws Exception {
+      FillerOptions options = FillerOptions.options().withSeed(42L);
+      List<Primitives> expected = FillerUtil.generate(Primitives.class, options).limit(50).collect(Collectors.toList());
+      try (FillGenerator<Primitives> generator = FillerUtil.generator(Primitives.class, options).prefetch(8)) {
+        List<Primitives> prefetched = generator.stream().limit(50).collect(Collectors.toList());
+        for (int i = 0; i < expected.size(); i++) {
+          assertEquals(expected.get(i).aDate, prefetched.get(i).aDate);
+          assertEquals(expected.get(i).aFloat, prefetched.get(i).aFloat, 0f);
+        }
+      }
+  }
+
+  @Test(timeout = 10000)
+  public void testGeneratorFailure() throws Exception {
+      Failing.created.set(0);
+      try (FillGenerator<Failing> generator = FillerUtil.generator(Failing.class, FillerOptions.options().withSeed(1L)).prefetch(1)) {
+        assertTrue(generator.hasNext());
+        assertNotNull(generator.next());
+        assertFalse(generator.hasNext());
+        try {
+          generator.next();
+          fail("the error of the producer must be reported");
+        } catch (final NoSuchElementException e) {
+          assertThat(e.getCause()).isInstanceOf(AssertionError.class);
+        }
+        assertFalse(generator.hasNext());
+      }
+  }
+
+  @Test(timeout = 10000)
+  public void testGeneratorClosed() throws Exception {
+      FillGenerator<Primitives> direct = FillerUtil.generator(Primitives.class, FillerOptions.options());
+      FillGenerator<Primitives> prefetching = FillerUtil.generator(Primitives.class, FillerOptions.options()).prefetch(4);
+      for (FillGenerator<Primitives> generator : Arrays.asList(direct, prefetching)) {
+        assertTrue(generator.hasNext());
+        assertNotNull(generator.next());
+        generator.close();
+        assertFalse(generator.hasNext());
+        try {
+          generator.next();
+          fail("the generator is closed");
+        } catch (final NoSuchElementException e) {
+          assertNull(e.getCause());
+        }
+        int count = 0;
+        while (generator.hasNext()) {
+          generator.next();
+          count++;
+        }
+        assertEquals(0, count);
+      }
+  }
+
+  public static class Failing {
+      static final AtomicInteger created = new AtomicInteger();
+
+      private String name;
+
+      public Failing() {
+          if (created.incrementAndGet() > 1) {
+              throw new AssertionError("no more instances");
+          }
+      }
+  }
+
+  @Test
+  public void testFillWithStrings() throws Exception {
+      Data pooled = FillerUtil.fill(Data.class, FillerOptions.options().withStrings(RandomStrings.pooled(3, 8, RandomStrings.ALPHANUMERIC)));
+      assertThat(pooled.aString.length()).isBetween(3, 8);
+      assertThat(pooled.aString).matches("[A-Za-z0-9]+");
+
+      RandomStrings dictionary = RandomStrings.dictionary(4);
+      Set<String> values = FillerUtil.fillMany(Data.class, 50, FillerOptions.options().withStrings(dictionary)).stream()
+          .map(data -> data.aString).collect(Collectors.toSet());
+      assertThat(values.size()).isBetween(1, 4);
+  }
+
+  @Test
+  public void testValueGenerators() throws Exception {
+      Date date = new Date(0L);
+      ValueGenerators.register(Date.class, random -> date);
+      try {
+        assertSame(date, FillerUtil.fill(Primitives.class).aDate);
+        assertSame(date, FillerUtil.fill(Primitives.class, FillerOptions.options().withGeneratedFillers(true)).aDate);
+      } finally {
+        ValueGenerators.unregister(Date.class);
+      }
+      assertThat(FillerUtil.fill(Primitives.class).aDate).isNotSameAs(date);
+
+      assertThat(FillerUtil.fill(Names.class).names).hasSize(FillerOptions.DEFAULT_COLLECTION_SIZE).doesNotContainNull();
+  }
+
+  public static class Names {
+      private List<String> names;
+  }
+
+  @Test
+  public void testFillImmutable() throws Exception {
+      Immutable immutable = FillerUtil.fill(Immutable.class);
+      assertNotNull(immutable.name);
+      assertNotNull(immutable.date);
+      assertNotNull(immutable.primitives);
+      assertNotNull(immutable.names);
+      assertNotNull(immutable.comment);
+  }
+
+  public static final class Immutable {
+      private final String name;
+
+      private final Date date;
+
+      private final Primitives primitives;
+
+      private final List<String> names;
+
+      private String comment;
+
+      public Immutable(final String name, final Date date, final Primitives primitives, final List<String> names) {
+          this.name = name;
+          this.date = date;
+          this.primitives = primitives;
+          this.names = names;
+      }
+
+      public Immutable(final String name) {
+          this(name, null, null, null);
+      }
+  }
+
+  @Test
+  public void testFillFinalWithGeneratedFillers() throws Exception {
+      assertNotNull(DirectFillers.of(Decorated.class).getFiller());
+      for (boolean generated : new boolean[] { false, true }) {
+          FillerOptions options = FillerOptions.options().withGeneratedFillers(generated);
+          Decorated decorated = FillerUtil.fill(Decorated.class, options);
+          assertThat(decorated.name).endsWith("!");
+          assertNotNull(decorated.comment);
+          assertThat(FillerUtil.refill(decorated, options).name).endsWith("!");
+      }
+  }
+
+  public static final class Decorated {
+      private final String name;
+
+      public String comment;
+
+      public Decorated(final String name) {
+          this.name = name + "!";
+      }
+  }
+
+  @Test
+  public void testRefill() throws Exception {
+      Node node = FillerUtil.fill(Node.class, FillerOptions.options().withCollectionSize(3));
+      Node parent = node.parent;
+      List<Node> children = node.children;
+      String name = node.name;
+
+      assertSame(node, FillerUtil.refill(node));
+      assertSame(parent, node.parent);
+      assertSame(children, node.children);
+      assertThat(node.children).hasSize(FillerOptions.DEFAULT_COLLECTION_SIZE);
+      assertThat(node.name).isNotEqualTo(name);
+  }
+
+  @Test
+  public void testRefillUnmodifiable() throws Exception {
+      Node node = FillerUtil.fill(Node.class, FillerOptions.options().withCollectionSize(3));
+      List<Node> fixed = Arrays.asList(new Node(), new Node());
+      node.children = fixed;
+      FillerUtil.refill(node);
+      assertThat(node.children).isNotSameAs(fixed).hasSize(FillerOptions.DEFAULT_COLLECTION_SIZE);
+      assertThat(fixed).hasSize(2);
+
+      List<Node> unmodifiable = Collections.unmodifiableList(node.children);
+      node.children = unmodifiable;
+      FillerUtil.refill(node);
+      assertThat(node.children).isNotSameAs(unmodifiable);
+
+      Maps maps = FillerUtil.fill(Maps.class, FillerOptions.options().withMapSize(5));
+      Map<String, Integer> empty = Collections.emptyMap();
+      maps.byName = empty;
+      FillerUtil.refill(maps);
+      assertThat(maps.byName).isNotSameAs(empty).isNotEmpty();
+  }
+
+  @Test
+  public void testRefillLazy() throws Exception {
+      Tree tree = FillerUtil.fill(Tree.class, FillerOptions.options().withLazyFill(true));
+      Field left = Tree.class.getDeclaredField("left");
+      left.setAccessible(true);
+      assertNull(left.get(tree));
+      FillerUtil.refill(tree);
+      Object refilled = left.get(tree);
+      assertNotNull(refilled);
+      // the getter no longer generates the field.
+      assertSame(refilled, tree.getLeft());
+  }
+
+  @Test
+  public void testParallelCollections() throws Exception {
+      FillerOptions options = FillerOptions.options().withSeed(7L).withCollectionSize(40).withParallelThreshold(16).withMaxDepth(2);
+      Bean first = FillerUtil.fill(Bean.class, options);
+      Bean second = FillerUtil.fill(Bean.class, options);
+      assertThat(first.someData).hasSize(40);
+      assertThat(first.someData.stream().map(data -> data.aDate).collect(Collectors.toList()))
+          .isEqualTo(second.someData.stream().map(data -> data.aDate).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testFillCached() throws Exception {
+      FillerOptions options = FillerOptions.options().withSeed(11L).withCollectionSize(3).withInstanceSharing(true);
+      Node fresh = FillerUtil.fill(Node.class, options);
+      Node first = FillerUtil.fillCached(Node.class, options);
+      Node second = FillerUtil.fillCached(Node.class, options);
+      assertThat(first).isNotSameAs(second);
+      assertEquals(fresh.name, second.name);
+      assertEquals(fresh.children.get(2).name, second.children.get(2).name);
+      assertSame(second, second.children.get(0).parent);
+  }
+
+  @Test
+  public void testFillMaps() throws Exception {
+      Maps maps = FillerUtil.fill(Maps.class, FillerOptions.options().withMapSize(5).withPresizedMaps(true));
+      assertThat(maps.byName).hasSize(5);
+      assertThat(maps.byName.values()).doesNotContainNull();
+      assertThat(maps.ordered).isInstanceOf(LinkedHashMap.class).hasSize(5);
+      assertThat(maps.ordered.values().iterator().next().aDate).isNotNull();
+      assertThat((Map<?, ?>) maps.untyped).isEmpty();
+  }
+
+  public static class Maps {
+      private Map<String, Integer> byName;
+
+      private LinkedHashMap<Long, Primitives> ordered;
+
+      @SuppressWarnings("rawtypes")
+      private Map untyped;
+  }
+
+  @Test
+  public void testFillerMetrics() throws Exception {
+      FillerMetrics.reset();
+      FillerMetrics.enable();
+      try {
+        FillerUtil.fill(Bean.class);
+        FillerUtil.fill(Bean.class);
+      } finally {
+        FillerMetrics.disable();
+      }
+      FillerMetrics.ClassMetrics metrics = FillerMetrics.snapshot(Bean.class);
+      assertEquals(2, metrics.getCalls());
+      assertThat(metrics.getObjects()).isGreaterThan(2);
+      assertThat(metrics.getFields()).isGreaterThan(10);
+      assertThat(metrics.getNanos()).isPositive();
+
+      FillerMetrics.registerMBean();
+      Object classes = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(FillerMetrics.OBJECT_NAME), "Classes");
+      assertThat((Object[]) classes).isNotEmpty();
+  }
+
+  public static class Primitives {
+      private byte aByte;
+
+      private short aShort;
+
+      private char aChar;
+
+      private float aFloat;
+
+      private Date aDate;
+  }
+
   public class Data {
       public int aInt;
 
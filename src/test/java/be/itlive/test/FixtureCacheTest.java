@@ -0,0 +1,156 @@
+package be.itlive.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FixtureCacheTest {
+
+	private static final FileTime OLD = FileTime.fromMillis(0);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String previous;
+
+	private final FillerOptions options = FillerOptions.options().withSeed(5L).withCollectionSize(3);
+
+	@Before
+	public void setUp() {
+		previous = System.setProperty(FixtureCache.DIRECTORY_PROPERTY, folder.getRoot().getPath());
+	}
+
+	@After
+	public void tearDown() {
+		if (previous == null) {
+			System.clearProperty(FixtureCache.DIRECTORY_PROPERTY);
+		} else {
+			System.setProperty(FixtureCache.DIRECTORY_PROPERTY, previous);
+		}
+	}
+
+	@Test
+	public void testHit() throws Exception {
+		Path file = FixtureCache.file(Node.class, options);
+		assertThat(file.startsWith(folder.getRoot().toPath())).isTrue();
+		Node first = FillerUtil.fillCached(Node.class, options);
+		assertTrue(Files.exists(file));
+		Files.setLastModifiedTime(file, OLD);
+
+		Node second = FillerUtil.fillCached(Node.class, options);
+		assertEquals(OLD, Files.getLastModifiedTime(file));
+		assertThat(second).isNotSameAs(first);
+		assertEquals(first.name, second.name);
+		assertThat(second.children).hasSize(3);
+		assertEquals(first.children.get(1).name, second.children.get(1).name);
+	}
+
+	@Test
+	public void testShapeChanged() throws Exception {
+		Path file = FixtureCache.file(Node.class, options);
+		Node first = FillerUtil.fillCached(Node.class, options);
+		// the shape of Node recorded in the header no longer matches the class.
+		byte[] bytes = Files.readAllBytes(file);
+		byte[] name = Node.class.getName().getBytes(StandardCharsets.UTF_8);
+		int shape = indexOf(bytes, name) + name.length + 2;
+		bytes[shape] = (byte) (bytes[shape] == '0' ? '1' : '0');
+		Files.write(file, bytes);
+		Files.setLastModifiedTime(file, OLD);
+		assertNull(FixtureCache.load(Node.class, file));
+
+		Node second = FillerUtil.fillCached(Node.class, options);
+		assertNotEquals(OLD, Files.getLastModifiedTime(file));
+		assertEquals(first.name, second.name);
+		assertNotNull(FixtureCache.load(Node.class, file));
+	}
+
+	@Test
+	public void testNotRebuildable() throws Exception {
+		Path file = FixtureCache.file(Fixed.class, options);
+		Fixed fixed = FillerUtil.fillCached(Fixed.class, options);
+		assertFalse(Files.exists(file));
+		assertThat(fixed.codes).containsExactly("a", "b");
+		assertThat(fixed.labels).containsEntry("k", "v");
+		assertNotNull(fixed.name);
+
+		Fixed modifiable = new Fixed();
+		modifiable.codes = new ArrayList<>(fixed.codes);
+		modifiable.labels = new HashMap<>(fixed.labels);
+		FixtureCache.store(modifiable, file);
+		Fixed loaded = FixtureCache.load(Fixed.class, file);
+		assertThat(loaded.codes).isEqualTo(modifiable.codes).isInstanceOf(ArrayList.class);
+		assertSame(HashMap.class, loaded.labels.getClass());
+	}
+
+	@Test
+	public void testNoNoArgConstructor() throws Exception {
+		Path file = FixtureCache.file(Holder.class, options);
+		Holder holder = FillerUtil.fillCached(Holder.class, options);
+		assertNotNull(holder.named.name);
+		assertFalse(Files.exists(file));
+		assertEquals(holder.named.name, FillerUtil.fillCached(Holder.class, options).named.name);
+		assertFalse(Files.exists(file));
+	}
+
+	/**
+	 * @param bytes content of a file.
+	 * @param part  searched bytes.
+	 * @return the index of the first occurrence of the part.
+	 */
+	private static int indexOf(final byte[] bytes, final byte[] part) {
+		for (int i = 0; i <= bytes.length - part.length; i++) {
+			if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + part.length), part)) {
+				return i;
+			}
+		}
+		throw new AssertionError("not found");
+	}
+
+	public static class Node {
+		private String name;
+
+		private List<Node> children;
+	}
+
+	public static class Holder {
+		private Named named;
+	}
+
+	public static class Named {
+		private final String name;
+
+		public Named(final String name) {
+			this.name = name;
+		}
+	}
+
+	public static class Fixed {
+		private String name;
+
+		private List<String> codes = Arrays.asList("a", "b");
+
+		private Map<String, String> labels = Collections.unmodifiableMap(Collections.singletonMap("k", "v"));
+	}
+}
@@ -0,0 +1,127 @@
+package be.itlive.test;
+
+import static be.itlive.test.TestFieldSupplier.field;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+
+import be.itlive.test.TestFieldSupplier.Fields;
+
+public class TestFieldSupplierTest {
+
+    @Test
+    public void testInheritedPrivateField() {
+        Child child = new Child();
+        Supplier<String> supplier = field(child, "name", String.class);
+        assertNull(supplier.get());
+        child.rename("first");
+        assertEquals("first", supplier.get());
+        child.rename("second");
+        assertEquals("second", supplier.get());
+    }
+
+    @Test
+    public void testRegularExpression() {
+        Child child = new Child();
+        child.items.add("a");
+        assertEquals(Arrays.asList("a"), field(child, "it.*", List.class).get());
+        // matched in the parent.
+        assertEquals(child.count, (int) field(child, ".*ount", int.class).get());
+    }
+
+    @Test
+    public void testStaticField() {
+        Child child = new Child();
+        Supplier<String> supplier = field(child, "shared", String.class);
+        Child.shared = "static";
+        assertEquals("static", supplier.get());
+        Child.shared = null;
+        assertNull(supplier.get());
+    }
+
+    @Test
+    public void testPrimitiveField() {
+        Child child = new Child();
+        Supplier<Integer> supplier = field(child, "count", int.class);
+        assertEquals(Integer.valueOf(0), supplier.get());
+        child.count = 3;
+        assertEquals(Integer.valueOf(3), supplier.get());
+    }
+
+    @Test
+    public void testWrongType() {
+        try {
+            field(new Child(), "name", Integer.class);
+            fail("a String field can't supply an Integer");
+        } catch (final RuntimeException e) {
+            assertThat(e.getMessage()).isEqualTo("The type of the field (class java.lang.String) is not assignable to class java.lang.Integer");
+        }
+    }
+
+    @Test
+    public void testFieldNotFound() {
+        try {
+            field(new Child(), "missing", String.class);
+            fail("the field doesn't exist");
+        } catch (final RuntimeException e) {
+            assertThat(e.getCause()).isInstanceOf(NoSuchFieldException.class)
+                    .hasMessage("The field 'missing' not found in instance of " + Child.class);
+        }
+    }
+
+    @Test
+    public void testFields() {
+        Child child = new Child();
+        Fields fields = TestFieldSupplier.fields(child, "name", "count", "it.*");
+        Supplier<String> name = fields.supplier("name", String.class);
+        Supplier<Integer> count = fields.supplier(1, int.class);
+        assertThat(fields.snapshot()).containsExactly(null, 0, child.items);
+        child.rename("renamed");
+        child.count = 7;
+        assertEquals("renamed", name.get());
+        assertEquals(Integer.valueOf(7), count.get());
+        assertThat(fields.snapshot()).containsExactly("renamed", 7, child.items);
+        try {
+            fields.supplier("items", List.class);
+            fail("only the given names are resolved");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e.getMessage()).contains("'items'");
+        }
+    }
+
+    @Test
+    public void testFieldsNotFound() {
+        try {
+            TestFieldSupplier.fields(new Child(), "name", "missing", "absent.*");
+            fail("two fields don't exist");
+        } catch (final RuntimeException e) {
+            assertThat(e.getCause()).isInstanceOf(NoSuchFieldException.class)
+                    .hasMessage("The fields 'missing', 'absent.*' not found in instance of " + Child.class);
+        }
+    }
+
+    public static class Parent {
+        private String name;
+
+        protected int count;
+
+        void rename(final String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Child extends Parent {
+        private static String shared;
+
+        private final List<String> items = Lists.newArrayList();
+    }
+}
@@ -0,0 +1,46 @@
+package be.itlive.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import javax.xml.validation.Schema;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class XmlSchemaValidationTest {
+
+    private static final String[] SCHEMAS = { XmlSchemaValidationTest.class.getResource("/xsd/note.xsd").toExternalForm() };
+
+    @Rule
+    public XmlSchemaValidation validation = new XmlSchemaValidation(SCHEMAS);
+
+    @Test
+    public void testValid() {
+        validation.assertValid("/xsd/note.xml");
+    }
+
+    @Test
+    public void testSharedSchema() {
+        Schema schema = new XmlSchemaValidation(SCHEMAS).getSchema();
+        assertNotNull(schema);
+        assertSame(schema, new XmlSchemaValidation(SCHEMAS.clone(), new String[0]).getSchema());
+
+        XmlSchemaValidation.clearSchemaCache();
+        Schema recompiled = new XmlSchemaValidation(SCHEMAS).getSchema();
+        assertNotSame(schema, recompiled);
+        assertSame(recompiled, new XmlSchemaValidation(SCHEMAS).getSchema());
+    }
+
+    @Test
+    public void testMaximumSize() {
+        assertEquals(-1, XmlSchemaValidation.maximumSize(null));
+        assertEquals(-1, XmlSchemaValidation.maximumSize(" "));
+        assertEquals(20, XmlSchemaValidation.maximumSize(" 20 "));
+        assertEquals(0, XmlSchemaValidation.maximumSize("0"));
+        assertEquals(-1, XmlSchemaValidation.maximumSize("ten"));
+        assertEquals(-1, XmlSchemaValidation.maximumSize("-5"));
+    }
+}
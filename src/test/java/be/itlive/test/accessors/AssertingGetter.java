@@ -0,0 +1,17 @@
+package be.itlive.test.accessors;
+
+/**
+ * Bean whose getter throws an {@link AssertionError}.
+ */
+public class AssertingGetter {
+
+	private String label;
+
+	public String getLabel() {
+		throw new AssertionError("label not loaded");
+	}
+
+	public void setLabel(final String label) {
+		this.label = label;
+	}
+}
@@ -0,0 +1,27 @@
+package be.itlive.test.accessors;
+
+/**
+ * Bean with standard accessors.
+ */
+public class Customer {
+
+	private String name;
+
+	private int age;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(final String name) {
+		this.name = name;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	public void setAge(final int age) {
+		this.age = age;
+	}
+}
@@ -0,0 +1,17 @@
+package be.itlive.test.accessors;
+
+/**
+ * Bean whose setter doesn't set its field.
+ */
+public class IgnoredSetter {
+
+	private String code;
+
+	public String getCode() {
+		return code;
+	}
+
+	public void setCode(final String code) {
+		// forgotten.
+	}
+}
@@ -0,0 +1,17 @@
+package be.itlive.test.accessors;
+
+/**
+ * Bean whose getter calls itself.
+ */
+public class RecursiveGetter {
+
+	private Long total;
+
+	public Long getTotal() {
+		return getTotal();
+	}
+
+	public void setTotal(final Long total) {
+		this.total = total;
+	}
+}
@@ -0,0 +1,106 @@
+package be.itlive.test.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.ResultSet;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.Column;
+
+import org.junit.Test;
+
+public class ResultSetMockeryTest {
+
+    @Test
+    public void testFromBeans() throws Exception {
+        ResultSet resultSet = ResultSetMockery.fromBeans(Order.class, 20, 42L).createMock();
+        ResultSet replay = ResultSetMockery.fromBeans(Order.class, 20, 42L).createMock();
+        assertEquals(4, resultSet.getMetaData().getColumnCount());
+        int rows = 0;
+        while (resultSet.next()) {
+            assertTrue(replay.next());
+            rows++;
+            assertEquals(replay.getLong("ORDER_ID"), resultSet.getLong("o.ORDER_ID"));
+            assertEquals(replay.getInt("quantity"), resultSet.getInt("o.quantity"));
+            assertEquals(replay.getString("label"), resultSet.getString("label"));
+            assertThat(resultSet.getString("label")).isNotNull();
+            assertFalse(resultSet.wasNull());
+            assertThat(resultSet.getTimestamp("CREATED_AT").getTime()).isEqualTo(resultSet.getDate("CREATED_AT").getTime())
+                    .isEqualTo(replay.getTimestamp("CREATED_AT").getTime());
+            assertNull(resultSet.getString("tags"));
+            assertTrue(resultSet.wasNull());
+        }
+        assertEquals(20, rows);
+        assertFalse(replay.next());
+    }
+
+    @Test
+    public void testTypedGetters() throws Exception {
+        ResultSet resultSet = ResultSetMockery.resultSet("ID", "AMOUNT", "CREATED", "ACTIVE").addRow("12", "3000000000", "2019-03-04 10:11:12", "true")
+                .createMock();
+        assertTrue(resultSet.next());
+        assertEquals(12, resultSet.getInt("t.ID"));
+        assertEquals(3000000000L, resultSet.getLong("AMOUNT"));
+        try {
+            resultSet.getInt("AMOUNT");
+            fail("an int can't hold " + resultSet.getString("AMOUNT"));
+        } catch (final NumberFormatException e) {
+            // expected.
+        }
+        assertEquals("2019-03-04 10:11:12", resultSet.getString("CREATED"));
+        assertEquals(resultSet.getDate("CREATED").getTime(), resultSet.getTimestamp("CREATED").getTime());
+        assertTrue(resultSet.getBoolean("ACTIVE"));
+    }
+
+    @Test
+    public void testAddRow() throws Exception {
+        ResultSet resultSet = ResultSetMockery.resultSet("A;B;C").addRow("1", "2").addRow("3", null, "5", "6").parseRow("7;NULL;", "NULL")
+                .createMock();
+        assertTrue(resultSet.next());
+        assertEquals("2", resultSet.getString("B"));
+        // missing trailing value.
+        assertNull(resultSet.getString("C"));
+        assertTrue(resultSet.wasNull());
+        assertTrue(resultSet.next());
+        assertNull(resultSet.getString("B"));
+        // the extra value is ignored.
+        assertEquals("5", resultSet.getString("C"));
+        assertTrue(resultSet.next());
+        assertEquals(7, resultSet.getInt("A"));
+        assertNull(resultSet.getString("B"));
+        assertNull(resultSet.getString("C"));
+        assertFalse(resultSet.next());
+    }
+
+    @Test
+    public void testFromCSVLines() throws Exception {
+        ResultSet resultSet = ResultSetMockery.fromCSVLines("ID;NAME", "NULL", "1;2;", "3;NULL").createMock();
+        assertTrue(resultSet.next());
+        assertEquals(1, resultSet.getInt("ID"));
+        assertEquals("2", resultSet.getString("NAME"));
+        assertTrue(resultSet.next());
+        assertEquals(3L, resultSet.getLong("ID"));
+        assertNull(resultSet.getString("NAME"));
+        assertFalse(resultSet.next());
+    }
+
+    public static class Order {
+        @Column(name = "ORDER_ID")
+        private Long id;
+
+        private int quantity;
+
+        @Column(name = "CREATED_AT")
+        private Date created;
+
+        private String label;
+
+        private List<String> tags;
+    }
+}